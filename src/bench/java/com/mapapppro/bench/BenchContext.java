@@ -0,0 +1,53 @@
+package com.mapapppro.bench;
+
+import com.mapapppro.MapAppProSpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the real application against an embedded H2 database in MySQL mode
+ * (or any JDBC URL given), with background jobs and SQL logging switched off.
+ */
+public final class BenchContext {
+
+    private BenchContext() {}
+
+    public static ConfigurableApplicationContext start() {
+        return start("jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", Map.of());
+    }
+
+    public static ConfigurableApplicationContext start(String jdbcUrl, Map<String, Object> overrides) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.profiles.active", "bench");
+        props.put("server.port", "0");
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            // MySQL compatibility; unknown settings covers the MySQL-only rewriteBatchedStatements
+            props.put("spring.datasource.url", jdbcUrl + ";MODE=MySQL;IGNORE_UNKNOWN_SETTINGS=TRUE");
+            props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            props.put("spring.datasource.username", "sa");
+            props.put("spring.datasource.password", "");
+            props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+            props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        } else {
+            // A real MySQL-compatible stand-in; credentials come from the overrides
+            props.put("spring.datasource.url", jdbcUrl);
+        }
+        props.put("spring.jpa.show-sql", "false");
+        props.put("opentrack.retention.enabled", "false");
+        props.put("opentrack.poi.fetcher", "stub");
+        props.put("logging.level.root", "WARN");
+        props.putAll(overrides);
+
+        // Passed as command-line arguments so they win over application.properties
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MapAppProSpringApplication.class)
+                .logStartupInfo(false)
+                .run(args);
+    }
+}
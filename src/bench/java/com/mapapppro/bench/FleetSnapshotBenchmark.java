@@ -0,0 +1,78 @@
+package com.mapapppro.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.model.User;
+import com.mapapppro.repository.UserRepository;
+import com.mapapppro.service.FleetStatusService;
+import com.mapapppro.service.LiveFleetRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembly of the /api/fleet/status body: live registry snapshot, driver
+ * profile join, per-driver HashMap building and JSON serialization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FleetSnapshotBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int drivers;
+
+    private ConfigurableApplicationContext context;
+    private FleetStatusService fleetStatusService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        fleetStatusService = context.getBean(FleetStatusService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        LiveFleetRegistry registry = context.getBean(LiveFleetRegistry.class);
+
+        List<User> users = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            User user = new User();
+            user.setUsername("driver" + i);
+            user.setPassword("unused");
+            user.setRole("DRIVER");
+            user.setFullName("Driver " + i);
+            user.setPlateNo("ABC" + i);
+            users.add(user);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (User user : context.getBean(UserRepository.class).saveAll(users)) {
+            registry.update(new TripLog(user.getId(), 14.5 + random.nextDouble() * 0.2,
+                    120.9 + random.nextDouble() * 0.2, "MOVING", LocalDateTime.now()));
+        }
+        // Profiles are cached after the first snapshot, as in steady state
+        fleetStatusService.snapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> snapshot() {
+        return fleetStatusService.snapshot();
+    }
+
+    @Benchmark
+    public byte[] snapshotJson() throws Exception {
+        return objectMapper.writeValueAsBytes(fleetStatusService.snapshot());
+    }
+}
@@ -0,0 +1,79 @@
+package com.mapapppro.bench;
+
+import com.mapapppro.geo.GeofenceIndex;
+import com.mapapppro.geo.GeofenceIndex.Zone;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-fix cost of the geofence check as the number of zones grows: the
+ * grid-indexed lookup used on ingest against testing every zone.
+ * Zones are a mix of 100-800 m circles and small polygons over a metro area.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeofenceIndexBenchmark {
+
+    private static final int POINTS = 4096;
+
+    @Param({"100", "1000", "10000"})
+    public int zones;
+
+    private GeofenceIndex index;
+    private List<Zone> all;
+    private double[] lats;
+    private double[] lngs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        index = new GeofenceIndex(0.01);
+        all = new ArrayList<>(zones);
+        for (int i = 0; i < zones; i++) {
+            double lat = 14.4 + random.nextDouble() * 0.4;
+            double lng = 120.9 + random.nextDouble() * 0.4;
+            Zone zone;
+            if (i % 4 == 0) {
+                double d = 0.002 + random.nextDouble() * 0.004;
+                zone = Zone.polygon(i, new double[] {lat - d, lat - d, lat + d, lat + d, lat},
+                                       new double[] {lng - d, lng + d, lng + d, lng - d, lng - 2 * d});
+            } else {
+                zone = Zone.circle(i, lat, lng, 100 + random.nextDouble() * 700);
+            }
+            all.add(zone);
+        }
+        index.putAll(all);
+
+        lats = new double[POINTS];
+        lngs = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            lats[i] = 14.4 + random.nextDouble() * 0.4;
+            lngs[i] = 120.9 + random.nextDouble() * 0.4;
+        }
+    }
+
+    @Benchmark
+    public List<Zone> indexed() {
+        int i = next++ & (POINTS - 1);
+        return index.containing(lats[i], lngs[i]);
+    }
+
+    @Benchmark
+    public List<Zone> linearScan() {
+        int i = next++ & (POINTS - 1);
+        List<Zone> result = new ArrayList<>(2);
+        for (Zone zone : all) {
+            if (zone.contains(lats[i], lngs[i])) result.add(zone);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mapapppro.bench;
+
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.TripLogRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TripLogRepository.findLatestLocations() (MAX(id) GROUP BY driver_id) as
+ * trip_logs grows. Uses a file-backed H2 database so the 10M-row case does
+ * not have to fit in the heap; rows are generated in a single INSERT ... SELECT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LatestLocationsQueryBenchmark {
+
+    private static final int DRIVERS = 200;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Path dbDir;
+    private ConfigurableApplicationContext context;
+    private TripLogRepository tripLogRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dbDir = Files.createTempDirectory("opentrack-bench");
+        context = BenchContext.start("jdbc:h2:file:" + dbDir.resolve("bench"), Map.of());
+        tripLogRepository = context.getBean(TripLogRepository.class);
+
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO trip_logs (id, driver_id, latitude, longitude, status, timestamp) " +
+                "SELECT X, MOD(X, ?) + 1, 14.5 + RAND() * 0.2, 120.9 + RAND() * 0.2, 'MOVING', " +
+                "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00') FROM SYSTEM_RANGE(1, ?)",
+                DRIVERS, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(dbDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<TripLog> findLatestLocations() {
+        return tripLogRepository.findLatestLocations();
+    }
+}
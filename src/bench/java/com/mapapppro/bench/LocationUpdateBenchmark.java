@@ -0,0 +1,88 @@
+package com.mapapppro.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mapapppro.dto.LocationUpdateDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-body cost of /api/driver/update and /api/driver/update/batch:
+ * Jackson deserialization plus Bean Validation of LocationUpdateDTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class LocationUpdateBenchmark {
+
+    private static final int BATCH_POINTS = 500;
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private byte[] single;
+    private byte[] batch;
+    private LocationUpdateDTO dto;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        single = "{\"lat\":14.5995,\"lng\":120.9842,\"status\":\"MOVING\",\"timestamp\":1760000000000}"
+                .getBytes(StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < BATCH_POINTS; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"lat\":").append(14.5 + i * 1e-4)
+              .append(",\"lng\":").append(120.9 + i * 1e-4)
+              .append(",\"status\":\"MOVING\",\"timestamp\":").append(1760000000000L + i * 1000L)
+              .append('}');
+        }
+        batch = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        dto = objectMapper.readValue(single, LocationUpdateDTO.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public LocationUpdateDTO deserialize() throws Exception {
+        return objectMapper.readValue(single, LocationUpdateDTO.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LocationUpdateDTO>> validate() {
+        return validator.validate(dto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LocationUpdateDTO>> deserializeAndValidate() throws Exception {
+        return validator.validate(objectMapper.readValue(single, LocationUpdateDTO.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_POINTS)
+    public int deserializeAndValidateBatch() throws Exception {
+        List<LocationUpdateDTO> points = objectMapper.readValue(batch, new TypeReference<List<LocationUpdateDTO>>() {});
+        int violations = 0;
+        for (LocationUpdateDTO point : points) {
+            violations += validator.validate(point).size();
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mapapppro.bench;
+
+import com.mapapppro.geo.GeoUtils;
+import com.mapapppro.geo.SpatialGrid;
+import com.mapapppro.model.TripLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Nearest-K dispatch query over live positions: the ring search on the
+ * fleet grid against sorting every driver by distance. A quarter of the
+ * drivers are STOPPED and excluded, as the endpoint does by default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearestDriversBenchmark {
+
+    private static final int POINTS = 4096;
+    private static final int K = 5;
+    private static final Predicate<TripLog> NOT_STOPPED = log -> !"STOPPED".equals(log.getStatus());
+
+    @Param({"1000", "10000", "100000"})
+    public int drivers;
+
+    private SpatialGrid<Long, TripLog> grid;
+    private List<TripLog> all;
+    private double[] lats;
+    private double[] lngs;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(11);
+        grid = new SpatialGrid<>(0.01);
+        all = new ArrayList<>(drivers);
+        for (long id = 1; id <= drivers; id++) {
+            String status = id % 4 == 0 ? "STOPPED" : "MOVING";
+            TripLog log = new TripLog(id, 14.4 + random.nextDouble() * 0.4, 120.9 + random.nextDouble() * 0.4, status);
+            grid.put(id, log.getLatitude(), log.getLongitude(), log);
+            all.add(log);
+        }
+
+        lats = new double[POINTS];
+        lngs = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            lats[i] = 14.4 + random.nextDouble() * 0.4;
+            lngs[i] = 120.9 + random.nextDouble() * 0.4;
+        }
+    }
+
+    @Benchmark
+    public List<SpatialGrid.Neighbor<TripLog>> ringSearch() {
+        int i = next++ & (POINTS - 1);
+        return grid.nearest(lats[i], lngs[i], K, NOT_STOPPED);
+    }
+
+    @Benchmark
+    public List<TripLog> sortAll() {
+        int i = next++ & (POINTS - 1);
+        double lat = lats[i], lng = lngs[i];
+        return all.stream()
+                .filter(NOT_STOPPED)
+                .sorted(Comparator.comparingDouble(
+                        (TripLog log) -> GeoUtils.haversineMeters(lat, lng, log.getLatitude(), log.getLongitude())))
+                .limit(K)
+                .toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mapapppro.bench;
+
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.TripLogRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TripLog insert throughput against embedded H2: one save() per fix, as the
+ * controller used to do, versus the saveAll batches written by the ingestion flusher.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TripLogPersistenceBenchmark {
+
+    private static final int BATCH = 200;
+
+    private ConfigurableApplicationContext context;
+    private TripLogRepository tripLogRepository;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchContext.start();
+        tripLogRepository = context.getBean(TripLogRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void saveOneByOne() {
+        for (TripLog log : nextBatch()) {
+            tripLogRepository.save(log);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void saveAllBatched() {
+        tripLogRepository.saveAll(nextBatch());
+    }
+
+    private List<TripLog> nextBatch() {
+        List<TripLog> batch = new ArrayList<>(BATCH);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < BATCH; i++) {
+            long n = sequence++;
+            batch.add(new TripLog(n % 200 + 1, 14.5 + (n % 1000) * 1e-4, 120.9 + (n % 1000) * 1e-4, "MOVING", now));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,342 @@
+package com.mapapppro.loadtest;
+
+import com.mapapppro.bench.BenchContext;
+import com.mapapppro.model.User;
+import com.mapapppro.repository.UserRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the real application (embedded H2 by default,
+ * or any MySQL-compatible JDBC URL), seeds synthetic drivers and dispatchers,
+ * logs them in through the form login and drives the MapController endpoints
+ * over HTTP. Drivers post fixes along random walks and check their messages;
+ * dispatchers poll the fleet status and occasionally message a driver.
+ *
+ * Every simulated user runs a closed loop: the next request is scheduled one
+ * interval after the previous one started, or immediately if it took longer,
+ * so a saturated server shows up as falling throughput and rising latency
+ * rather than as an unbounded pile of in-flight requests.
+ *
+ * Options (name=value, or --name=value): drivers, dispatchers, duration,
+ * warmup (seconds), fix-interval-ms, message-interval-ms, fleet-interval-ms,
+ * send-interval-ms, jdbc-url, db-user, db-password, pool-size, threads.
+ */
+public class FleetLoadSimulator {
+
+    private static final String PASSWORD = "loadtest";
+    private static final String USER_PREFIX = "loadtest-";
+    // Manila; drivers start scattered within ~10 km of it
+    private static final double ORIGIN_LAT = 14.5995;
+    private static final double ORIGIN_LNG = 120.9842;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final Map<String, String> options;
+    private final HttpClient http;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, EndpointStats> stats = new ConcurrentSkipListMap<>();
+    private final List<Long> driverIds = new ArrayList<>();
+    private String baseUrl;
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    FleetLoadSimulator(Map<String, String> options) {
+        this.options = options;
+        this.scheduler = Executors.newScheduledThreadPool(intOption("threads", 4));
+        this.http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(intOption("threads", 4)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            // The leading dashes are optional, so the pom can show examples inside an XML comment
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            options.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+
+        FleetLoadSimulator simulator = new FleetLoadSimulator(options);
+        ConfigurableApplicationContext context = simulator.startApplication();
+        try {
+            simulator.run(context);
+        } finally {
+            context.close();
+        }
+        // The HTTP client's worker threads are not daemons
+        System.exit(0);
+    }
+
+    // --- Setup ---
+
+    private ConfigurableApplicationContext startApplication() {
+        String jdbcUrl = options.get("jdbc-url");
+        Map<String, Object> overrides = new HashMap<>();
+        if (options.containsKey("pool-size")) {
+            overrides.put("spring.datasource.hikari.maximum-pool-size", options.get("pool-size"));
+        }
+        if (jdbcUrl == null) {
+            return BenchContext.start("jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", overrides);
+        }
+        overrides.put("spring.datasource.username", options.getOrDefault("db-user", "root"));
+        overrides.put("spring.datasource.password", options.getOrDefault("db-password", ""));
+        return BenchContext.start(jdbcUrl, overrides);
+    }
+
+    private void run(ConfigurableApplicationContext context) throws Exception {
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        int drivers = intOption("drivers", 100);
+        int dispatchers = intOption("dispatchers", 3);
+        int duration = intOption("duration", 60);
+        int warmup = intOption("warmup", 10);
+
+        List<User> driverUsers = seedUsers(context, "DRIVER", drivers);
+        List<User> dispatcherUsers = seedUsers(context, "DISPATCHER", dispatchers);
+        driverUsers.forEach(u -> driverIds.add(u.getId()));
+
+        System.out.printf("Logging in %d drivers and %d dispatchers against %s%n", drivers, dispatchers, baseUrl);
+        Random random = new Random(42);
+        for (User user : driverUsers) {
+            new SimDriver(login(user.getUsername()), random).start();
+        }
+        for (User user : dispatcherUsers) {
+            new SimDispatcher(login(user.getUsername()), random).start();
+        }
+
+        System.out.printf("Warming up for %d s, measuring for %d s%n", warmup, duration);
+        Thread.sleep(warmup * 1000L);
+        recording = true;
+        long started = System.nanoTime();
+        Thread.sleep(duration * 1000L);
+        recording = false;
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        running = false;
+
+        report(elapsed, drivers, dispatchers);
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Inserts synthetic users directly; one BCrypt hash is shared by all of
+     * them so seeding thousands of drivers does not take minutes.
+     */
+    private List<User> seedUsers(ConfigurableApplicationContext context, String role, int count) {
+        UserRepository users = context.getBean(UserRepository.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<User> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername(USER_PREFIX + role.toLowerCase() + "-" + run + "-" + i);
+            user.setPassword(hash);
+            user.setRole(role);
+            user.setFullName("Load Test " + role + " " + i);
+            user.setShiftSchedule(i % 2 == 0 ? "AM" : "PM");
+            user.setActive(true);
+            batch.add(user);
+        }
+        return users.saveAll(batch);
+    }
+
+    /** Form login; returns the session cookie to send with every later request. */
+    private String login(String username) throws Exception {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode() + " " + location);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') < 0 ? c.length() : c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie for " + username));
+    }
+
+    // --- Simulated users ---
+
+    /** A driver moving on a random walk at 5-15 m/s, sometimes idling at a stop. */
+    private class SimDriver {
+        private final String cookie;
+        private final Random random;
+        private double lat;
+        private double lng;
+        private double heading;
+        private int idleTicks;
+
+        SimDriver(String cookie, Random random) {
+            this.cookie = cookie;
+            this.random = new Random(random.nextLong());
+            this.lat = ORIGIN_LAT + (this.random.nextDouble() - 0.5) * 0.18;
+            this.lng = ORIGIN_LNG + (this.random.nextDouble() - 0.5) * 0.18;
+            this.heading = this.random.nextDouble() * 2 * Math.PI;
+        }
+
+        void start() {
+            long fixInterval = intOption("fix-interval-ms", 2000);
+            long messageInterval = intOption("message-interval-ms", 10000);
+            loop("POST /api/driver/update", fixInterval, random.nextInt((int) fixInterval), this::nextFix);
+            loop("GET /api/driver/messages", messageInterval, random.nextInt((int) messageInterval),
+                    () -> get("/api/driver/messages", cookie));
+        }
+
+        private HttpRequest nextFix() {
+            String status = "MOVING";
+            if (idleTicks > 0) {
+                idleTicks--;
+                status = "IDLE";
+            } else if (random.nextInt(100) < 3) {
+                idleTicks = 5 + random.nextInt(10);
+                status = "IDLE";
+            } else {
+                double meters = (5 + random.nextDouble() * 10) * intOption("fix-interval-ms", 2000) / 1000.0;
+                heading += (random.nextDouble() - 0.5) * 0.6;
+                lat += meters * Math.cos(heading) / METERS_PER_DEGREE;
+                lng += meters * Math.sin(heading) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+            }
+            String body = String.format(Locale.ROOT, "{\"lat\":%.6f,\"lng\":%.6f,\"status\":\"%s\",\"timestamp\":%d}",
+                    lat, lng, status, System.currentTimeMillis());
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/driver/update"))
+                    .header("Cookie", cookie)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    /** A dispatcher watching the whole fleet and now and then messaging a driver. */
+    private class SimDispatcher {
+        private final String cookie;
+        private final Random random;
+
+        SimDispatcher(String cookie, Random random) {
+            this.cookie = cookie;
+            this.random = new Random(random.nextLong());
+        }
+
+        void start() {
+            long fleetInterval = intOption("fleet-interval-ms", 3000);
+            long sendInterval = intOption("send-interval-ms", 30000);
+            loop("GET /api/fleet/status", fleetInterval, random.nextInt((int) fleetInterval),
+                    () -> get("/api/fleet/status", cookie));
+            if (!driverIds.isEmpty()) {
+                loop("POST /api/admin/send-message", sendInterval, random.nextInt((int) sendInterval), this::message);
+            }
+        }
+
+        private HttpRequest message() {
+            Long driverId = driverIds.get(random.nextInt(driverIds.size()));
+            String form = "driverId=" + driverId + "&message=" + URLEncoder.encode("Load test ping", StandardCharsets.UTF_8);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/admin/send-message"))
+                    .header("Cookie", cookie)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+    }
+
+    private HttpRequest get(String path, String cookie) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Cookie", cookie).GET().build();
+    }
+
+    /** Sends one request, records it, and schedules the next one of the same kind. */
+    private void loop(String endpoint, long intervalMs, long initialDelayMs, Callable<HttpRequest> next) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+        Runnable[] tick = new Runnable[1];
+        tick[0] = () -> {
+            if (!running) return;
+            long start = System.nanoTime();
+            HttpRequest request;
+            try {
+                request = next.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long nanos = System.nanoTime() - start;
+                if (recording) {
+                    endpointStats.record(nanos, error == null ? response.statusCode() : -1);
+                }
+                long delay = Math.max(0, intervalMs - TimeUnit.NANOSECONDS.toMillis(nanos));
+                if (running) {
+                    scheduler.schedule(tick[0], delay, TimeUnit.MILLISECONDS);
+                }
+            });
+        };
+        scheduler.schedule(tick[0], initialDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // --- Reporting ---
+
+    private static class EndpointStats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, int status) {
+            latencies.add(nanos);
+            statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+            if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private void report(double seconds, int drivers, int dispatchers) {
+        System.out.printf("%nFleet load: %d drivers, %d dispatchers, %.1f s measured%n%n", drivers, dispatchers, seconds);
+        System.out.printf("%-30s %9s %9s %9s %9s %9s %8s  %s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "statuses");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            long[] sorted = s.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                System.out.printf("%-30s %9d%n", entry.getKey(), 0);
+                continue;
+            }
+            StringJoiner statuses = new StringJoiner(" ");
+            s.statuses.forEach((status, n) -> statuses.add((status < 0 ? "io" : status.toString()) + "=" + n.sum()));
+            System.out.printf(Locale.ROOT, "%-30s %9d %9.1f %9.1f %9.1f %9.1f %7.2f%%  %s%n",
+                    entry.getKey(),
+                    sorted.length,
+                    sorted.length / seconds,
+                    percentile(sorted, 0.50) / 1e6,
+                    percentile(sorted, 0.99) / 1e6,
+                    sorted[sorted.length - 1] / 1e6,
+                    100.0 * s.errors.get() / sorted.length,
+                    statuses);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -2,8 +2,10 @@ package com.mapapppro;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MapAppProSpringApplication {
     public static void main(String[] args) {
         SpringApplication.run(MapAppProSpringApplication.class, args);
@@ -0,0 +1,57 @@
+package com.mapapppro.config;
+
+import com.mapapppro.model.TripLog;
+import com.mapapppro.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tables that moved from IDENTITY to a pooled sequence keep their existing
+ * AUTO_INCREMENT rows. On MySQL Hibernate emulates the sequence with a
+ * one-row "<table>_seq" table starting at 1, so it is created if missing and
+ * moved past MAX(id) before the first insert to avoid handing out ids that
+ * are already taken.
+ */
+@Component
+@Lazy(false) // must run before the first insert, even with lazy initialization on
+public class IdSequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // Ensures Hibernate has created or updated the schema before we run
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void alignSequences() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        align("trip_logs", TripLog.ID_ALLOCATION_SIZE);
+        align("users", User.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String table, int allocationSize) {
+        String sequenceTable = table + "_seq";
+        // Hibernate's own table layout, for when it does not manage the schema (ddl-auto=none)
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + sequenceTable + " (next_val BIGINT)");
+        Long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) + 1 + ? FROM " + table, Long.class, allocationSize);
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequenceTable, Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO " + sequenceTable + " (next_val) VALUES (?)", floor);
+        } else {
+            jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, ?)", floor);
+        }
+        log.info("Aligned {} to start at or above {}", sequenceTable, floor);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mapapppro.config;
+
+import com.mapapppro.service.DriverMessageService;
+import com.mapapppro.service.FleetStreamService;
+import com.mapapppro.service.LiveFleetRegistry;
+import com.mapapppro.service.TripLogIngestionService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on controller methods
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Gauges over in-memory state: live fleet size, ingest backlog and parked client connections
+    @Bean
+    public MeterBinder openTrackGauges(LiveFleetRegistry liveFleetRegistry,
+                                       TripLogIngestionService ingestionService,
+                                       FleetStreamService fleetStreamService,
+                                       DriverMessageService driverMessageService) {
+        return registry -> {
+            Gauge.builder("opentrack.fleet.active.drivers", liveFleetRegistry, LiveFleetRegistry::size)
+                    .description("Drivers with a live position")
+                    .register(registry);
+            Gauge.builder("opentrack.ingest.queue.depth", ingestionService, TripLogIngestionService::getQueueDepth)
+                    .description("Fixes waiting to be written to trip_logs")
+                    .register(registry);
+            Gauge.builder("opentrack.fleet.stream.subscribers", fleetStreamService, FleetStreamService::getSubscriberCount)
+                    .description("Open dispatcher SSE streams")
+                    .register(registry);
+            Gauge.builder("opentrack.messages.waiting.polls", driverMessageService, DriverMessageService::getWaitingCount)
+                    .description("Parked driver message long-polls")
+                    .register(registry);
+        };
+    }
+}
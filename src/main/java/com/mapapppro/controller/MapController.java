@@ -1,47 +1,129 @@
 package com.mapapppro.controller;
 
+import com.mapapppro.dto.GeofenceCreateDTO;
 import com.mapapppro.dto.LocationUpdateDTO;
 import com.mapapppro.dto.UserCreateDTO;
+import com.mapapppro.dto.UserSummaryDTO;
+import com.mapapppro.event.LandmarkChangedEvent;
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.geo.BoundingBox;
 import com.mapapppro.model.DriverMessage;
+import com.mapapppro.model.Geofence;
 import com.mapapppro.model.Landmark;
 import com.mapapppro.model.TripLog;
 import com.mapapppro.model.User;
-import com.mapapppro.repository.DriverMessageRepository;
 import com.mapapppro.repository.LandmarkRepository;
-import com.mapapppro.repository.TripLogRepository;
 import com.mapapppro.repository.UserRepository;
+import com.mapapppro.service.DriverMessageService;
+import com.mapapppro.service.CurrentUserCache;
+import com.mapapppro.service.FleetStatusService;
+import com.mapapppro.service.FleetStreamService;
+import com.mapapppro.service.GeofenceEngine;
+import com.mapapppro.service.KpiAggregator;
+import com.mapapppro.service.LandmarkIndex;
+import com.mapapppro.service.PoiService;
+import com.mapapppro.service.ResourceVersions;
+import com.mapapppro.service.ResourceVersions.Resource;
+import com.mapapppro.service.TripHistoryService;
+import com.mapapppro.service.TripLogIngestionService;
+import com.mapapppro.service.TripSegmenter;
+import com.mapapppro.service.UserImportService;
+import com.mapapppro.service.UserSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.ui.Model;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Controller
+@Lazy(false) // build the request path at startup, not on the first driver post
 public class MapController {
 
+    private static final int MAX_BATCH_POINTS = 1000;
+    private static final int MAX_USER_PAGE = 500;
+    private static final int MAX_NEAREST = 50;
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(2);
+    // Polled bodies carry an ETag; no-cache lets the browser store them and revalidate every poll
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired private UserRepository userRepository;
-    @Autowired private TripLogRepository tripLogRepository;
-    @Autowired private DriverMessageRepository messageRepository;
     @Autowired private LandmarkRepository landmarkRepository;
     @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private TripLogIngestionService tripLogIngestionService;
+    @Autowired private FleetStatusService fleetStatusService;
+    @Autowired private FleetStreamService fleetStreamService;
+    @Autowired private CurrentUserCache currentUserCache;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private LandmarkIndex landmarkIndex;
+    @Autowired private PoiService poiService;
+    @Autowired private ResourceVersions resourceVersions;
+    @Autowired private GeofenceEngine geofenceEngine;
+    @Autowired private KpiAggregator kpiAggregator;
+    @Autowired private TripSegmenter tripSegmenter;
+    // Indexing every user is deferred to the first admin search when lazy initialization is on
+    @Autowired @Lazy private UserSearchIndex userSearchIndex;
+    @Autowired private TripHistoryService tripHistoryService;
+    @Autowired private Validator validator;
+    @Autowired private DriverMessageService driverMessageService;
+    @Autowired private UserImportService userImportService;
 
     // --- HELPER METHOD ---
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !auth.getName().equals("anonymousUser")) {
-            return userRepository.findByUsername(auth.getName());
+        return currentUserCache.getCurrentUser();
+    }
+
+    // Uses the client fix time when given; otherwise the server's receive time
+    private static TripLog toTripLog(Long driverId, LocationUpdateDTO dto) {
+        LocalDateTime timestamp = dto.getTimestamp() != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(dto.getTimestamp()), ZoneId.systemDefault())
+                : LocalDateTime.now();
+        return new TripLog(driverId, dto.getLatitude(), dto.getLongitude(), dto.getStatus(), timestamp);
+    }
+
+    // Splits "a,b,c" query params into an upper-cased set
+    private static Set<String> parseList(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return Set.of();
         }
-        return null;
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toSet());
     }
 
     // --- PAGES ---
@@ -93,6 +175,7 @@ public class MapController {
         String hashedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(hashedPassword);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
         
         return "Password reset successfully!\n" +
                "Username: " + username + "\n" +
@@ -140,9 +223,34 @@ public class MapController {
         newUser.setActive(true);
 
         userRepository.save(newUser);
+        eventPublisher.publishEvent(new UserChangedEvent(newUser.getId(), newUser.getUsername()));
         return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
     }
 
+    // Bulk create from a JSON array of the createUser body, or CSV with a header row.
+    // Answers 200 with a per-row report; rows fail independently.
+    @PostMapping(value = "/api/admin/users/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> importUsers(@RequestBody List<UserCreateDTO> users) {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(users));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/api/admin/users/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> importUsersCsv(@RequestBody String csv) {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(userImportService.parseCsv(csv)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/api/admin/users/{id}")
     @ResponseBody
     @PreAuthorize("hasRole('DISPATCHER')")
@@ -176,6 +284,7 @@ public class MapController {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
         return ResponseEntity.ok(user);
     }
 
@@ -190,14 +299,40 @@ public class MapController {
 
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
         return ResponseEntity.ok(Map.of("message", "User deactivated"));
     }
 
     @GetMapping("/api/admin/users")
     @ResponseBody
     @PreAuthorize("hasRole('DISPATCHER')")
-    public ResponseEntity<?> listUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<?> listUsers(@RequestParam(required = false) String role,
+                                       @RequestParam(required = false) Boolean active,
+                                       @RequestParam(required = false) String shift,
+                                       @RequestParam(required = false) String q,
+                                       @RequestParam(defaultValue = "0") long after,
+                                       @RequestParam(defaultValue = "50") int limit,
+                                       WebRequest request) {
+        // Keyset paging by id: pass the previous page's nextAfterId as after.
+        // Optional filters: role=DRIVER|DISPATCHER, active=true|false, shift=AM|PM, q=search words
+        if (limit < 1 || limit > MAX_USER_PAGE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Limit must be between 1 and " + MAX_USER_PAGE));
+        }
+        String etag = resourceVersions.etag(Resource.USERS, role, active, shift, q, after, limit);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        String roleFilter = role != null && !role.isBlank() ? role.toUpperCase() : null;
+        String shiftFilter = shift != null && !shift.isBlank() ? shift.toUpperCase() : null;
+        List<UserSummaryDTO> items = q != null && !q.isBlank()
+                ? userSearchIndex.searchPage(q, after, roleFilter, active, shiftFilter, limit)
+                : userRepository.findSummaryPage(after, roleFilter, active, shiftFilter, PageRequest.of(0, limit));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", items);
+        body.put("nextAfterId", items.size() == limit ? items.get(items.size() - 1).getId() : null);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
     }
 
     // --- FLEET TRACKING APIS ---
@@ -205,40 +340,210 @@ public class MapController {
     @PostMapping("/api/driver/update")
     @ResponseBody
     @PreAuthorize("hasRole('DRIVER')")
+    @Timed(value = "opentrack.driver.update", histogram = true, description = "Single driver fix ingestion")
     public ResponseEntity<?> updateLocation(@Valid @RequestBody LocationUpdateDTO dto) {
         User user = getCurrentUser();
         if (user == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
 
-        tripLogRepository.save(new TripLog(user.getId(), dto.getLatitude(), dto.getLongitude(), dto.getStatus()));
+        if (dto.getTimestamp() != null && Instant.ofEpochMilli(dto.getTimestamp()).isAfter(Instant.now().plus(MAX_CLOCK_SKEW))) {
+            dto.setTimestamp(null); // Clock far ahead; fall back to receive time
+        }
+        TripLog log = toTripLog(user.getId(), dto);
+        // Persisted asynchronously in batches; a full queue means the DB is falling behind
+        TripLogIngestionService.Outcome outcome = tripLogIngestionService.submit(log);
+        if (outcome == TripLogIngestionService.Outcome.REJECTED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Location queue is full, retry shortly"));
+        }
+        if (outcome == TripLogIngestionService.Outcome.FILTERED) {
+            return ResponseEntity.ok(Map.of("message", "Location unchanged"));
+        }
         return ResponseEntity.ok(Map.of("message", "Location saved"));
     }
 
+    // Upload of fixes buffered offline: an ordered JSON (or CBOR) array of points, each with
+    // its client timestamp. Valid points are stored in one transaction; invalid ones are
+    // skipped and listed by index under "rejected", so the client can drop the whole batch.
+    @PostMapping(value = "/api/driver/update/batch",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @ResponseBody
+    @PreAuthorize("hasRole('DRIVER')")
+    @Timed(value = "opentrack.driver.update.batch", histogram = true, description = "Buffered driver fix upload")
+    public ResponseEntity<?> updateLocationBatch(@RequestBody List<LocationUpdateDTO> points) {
+        User user = getCurrentUser();
+        if (user == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        if (points.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Batch is empty"));
+        }
+        if (points.size() > MAX_BATCH_POINTS) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", "Batch is limited to " + MAX_BATCH_POINTS + " points"));
+        }
+
+        Instant latestAllowed = Instant.now().plus(MAX_CLOCK_SKEW);
+        List<Map<String, Object>> errors = new ArrayList<>();
+        Set<Integer> rejected = new HashSet<>();
+        for (int i = 0; i < points.size(); i++) {
+            LocationUpdateDTO point = points.get(i);
+            List<String> messages = new ArrayList<>();
+            if (point == null) {
+                messages.add("Point is required");
+            } else {
+                for (ConstraintViolation<LocationUpdateDTO> violation : validator.validate(point)) {
+                    messages.add(violation.getMessage());
+                }
+                if (point.getTimestamp() == null) {
+                    messages.add("Timestamp is required for batched points");
+                } else if (Instant.ofEpochMilli(point.getTimestamp()).isAfter(latestAllowed)) {
+                    messages.add("Timestamp is in the future");
+                }
+            }
+            if (!messages.isEmpty()) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("index", i);
+                error.put("errors", messages);
+                errors.add(error);
+                rejected.add(i);
+            }
+        }
+        List<TripLog> logs = new ArrayList<>(points.size() - rejected.size());
+        for (int i = 0; i < points.size(); i++) {
+            if (!rejected.contains(i)) {
+                logs.add(toTripLog(user.getId(), points.get(i)));
+            }
+        }
+        int stored = logs.isEmpty() ? 0 : tripLogIngestionService.submitBatch(logs);
+        return ResponseEntity.ok(Map.of("message", "Locations saved", "received", points.size(),
+                "stored", stored, "rejected", errors));
+    }
+
     @GetMapping("/api/fleet/status")
     @ResponseBody
     @PreAuthorize("hasRole('DISPATCHER')")
-    public ResponseEntity<?> getFleetStatus() {
-        List<TripLog> logs = tripLogRepository.findLatestLocations();
-        
-        List<Map<String, Object>> enrichedData = logs.stream().map(log -> {
-            Map<String, Object> data = new HashMap<>();
-            data.put("driverId", log.getDriverId());
-            data.put("latitude", log.getLatitude());
-            data.put("longitude", log.getLongitude());
-            data.put("status", log.getStatus());
-            data.put("timestamp", log.getTimestamp());
-            
-            // Add driver details
-            User driver = userRepository.findById(log.getDriverId()).orElse(null);
-            if (driver != null) {
-                data.put("username", driver.getUsername());
-                data.put("fullName", driver.getFullName());
-                data.put("plateNo", driver.getPlateNo());
+    @Timed(value = "opentrack.fleet.status", histogram = true, description = "Fleet snapshot for dispatchers")
+    public ResponseEntity<?> getFleetStatus(@RequestParam(required = false) String bbox,
+                                            @RequestParam(required = false) String status,
+                                            WebRequest request) {
+        // Optional filters: bbox=minLng,minLat,maxLng,maxLat and status=MOVING,IDLE
+        String etag = resourceVersions.etag(Resource.FLEET, bbox, status);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            BoundingBox box = bbox != null ? BoundingBox.parse(bbox) : null;
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(fleetStatusService.snapshot(box, parseList(status)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // The k drivers closest to lat&lng or to a landmark, nearest first with distanceMeters.
+    // status=MOVING,IDLE narrows the statuses; by default every driver not STOPPED.
+    @GetMapping("/api/fleet/nearest")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> getNearestDrivers(@RequestParam(required = false) Double lat,
+                                               @RequestParam(required = false) Double lng,
+                                               @RequestParam(required = false) Long landmarkId,
+                                               @RequestParam(defaultValue = "5") int k,
+                                               @RequestParam(required = false) String status,
+                                               WebRequest request) {
+        if (k < 1 || k > MAX_NEAREST) {
+            return ResponseEntity.badRequest().body(Map.of("error", "k must be between 1 and " + MAX_NEAREST));
+        }
+        if (landmarkId != null) {
+            Landmark landmark = landmarkIndex.get(landmarkId);
+            if (landmark == null) {
+                return ResponseEntity.notFound().build();
             }
-            
-            return data;
-        }).toList();
-        
-        return ResponseEntity.ok(enrichedData);
+            lat = landmark.getLatitude();
+            lng = landmark.getLongitude();
+        }
+        if (lat == null || lng == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "lat and lng, or landmarkId, are required"));
+        }
+        String etag = resourceVersions.etag(Resource.FLEET, "nearest", lat, lng, k, status);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .body(fleetStatusService.nearest(lat, lng, k, parseList(status)));
+    }
+
+    @GetMapping(value = "/api/fleet/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<SseEmitter> streamFleet() {
+        SseEmitter emitter = fleetStreamService.subscribe();
+        if (emitter == null) {
+            // Too many open streams; the client falls back to polling /api/fleet/status
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Per-driver distance, moving/idle/stopped time and average speed for one shift date
+    // (default: the current one); shift=AM|PM narrows to one shift.
+    @GetMapping("/api/fleet/kpis")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> getFleetKpis(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String shift) {
+        if (shift != null && !shift.equalsIgnoreCase("AM") && !shift.equalsIgnoreCase("PM")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Shift must be AM or PM"));
+        }
+        LocalDate shiftDate = date != null ? date : kpiAggregator.shiftDateOf(LocalDateTime.now());
+        return ResponseEntity.ok(kpiAggregator.kpis(shiftDate, shift != null ? shift.toUpperCase() : null));
+    }
+
+    // Streams the driver's track between from and to (default: today so far).
+    // format=json yields [{latitude, longitude, status, timestamp}], format=polyline an encoded polyline.
+    @GetMapping("/api/fleet/{driverId}/history")
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<StreamingResponseBody> getTripHistory(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "json") String format) {
+        LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (Duration.between(start, end).toDays() > 31) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "History range is limited to 31 days");
+        }
+
+        if (format.equalsIgnoreCase("polyline")) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(out -> tripHistoryService.writePolyline(driverId, start, end, out));
+        }
+        if (format.equalsIgnoreCase("json")) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> tripHistoryService.writeJson(driverId, start, end, out));
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be json or polyline");
+    }
+
+    // Trips and stops overlapping from..to (default: today so far). The driver's
+    // current, still open segment comes last and has no id.
+    @GetMapping("/api/fleet/{driverId}/segments")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> getTripSegments(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime start = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+        }
+        return ResponseEntity.ok(tripSegmenter.segments(driverId, start, end));
     }
 
     // --- MESSAGING SYSTEM ---
@@ -254,33 +559,66 @@ public class MapController {
             return ResponseEntity.badRequest().body(Map.of("error", "Driver not found"));
         }
 
-        messageRepository.save(new DriverMessage(driverId, message));
+        driverMessageService.send(driverId, message);
         return ResponseEntity.ok(Map.of("message", "Message sent"));
     }
 
     @GetMapping("/api/driver/messages")
     @ResponseBody
     @PreAuthorize("hasRole('DRIVER')")
+    @Timed(value = "opentrack.driver.messages", histogram = true, description = "Unread message check")
     public ResponseEntity<?> checkMessages() {
         User user = getCurrentUser();
         if (user == null) return ResponseEntity.ok(List.of());
         
-        List<DriverMessage> msgs = messageRepository.findByDriverIdAndIsReadFalse(user.getId());
-        
-        // Mark all as read
-        for (DriverMessage m : msgs) {
-            m.setRead(true);
-            messageRepository.save(m);
+        return ResponseEntity.ok(driverMessageService.takeUnread(user.getId()));
+    }
+
+    // Long-poll variant: parks until a message arrives or the poll times out with []
+    @GetMapping("/api/driver/messages/poll")
+    @ResponseBody
+    @PreAuthorize("hasRole('DRIVER')")
+    @Timed(value = "opentrack.driver.messages.poll", histogram = true, description = "Message long-poll setup; the wait shows in http.server.requests")
+    public DeferredResult<List<DriverMessage>> pollMessages() {
+        User user = getCurrentUser();
+        if (user == null) {
+            DeferredResult<List<DriverMessage>> empty = new DeferredResult<>();
+            empty.setResult(List.of());
+            return empty;
         }
-        return ResponseEntity.ok(msgs);
+        return driverMessageService.poll(user.getId());
     }
 
     // --- LANDMARKS API ---
 
     @GetMapping("/api/landmarks")
     @ResponseBody
-    public ResponseEntity<?> getLandmarks() {
-        return ResponseEntity.ok(landmarkRepository.findAll());
+    public ResponseEntity<?> getLandmarks(@RequestParam(required = false) String bbox,
+                                          @RequestParam(required = false) Double lat,
+                                          @RequestParam(required = false) Double lng,
+                                          @RequestParam(required = false) Double radius,
+                                          @RequestParam(required = false) String type,
+                                          WebRequest request) {
+        // Optional filters: bbox=minLng,minLat,maxLng,maxLat | lat&lng&radius (meters) | type=GAS,REPAIR
+        String etag = resourceVersions.etag(Resource.LANDMARKS, bbox, lat, lng, radius, type);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Set<String> types = parseList(type);
+        try {
+            if (bbox != null) {
+                return ResponseEntity.ok().cacheControl(REVALIDATE).body(landmarkIndex.within(BoundingBox.parse(bbox), types));
+            }
+            if (lat != null && lng != null && radius != null) {
+                if (radius <= 0) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Radius must be positive"));
+                }
+                return ResponseEntity.ok().cacheControl(REVALIDATE).body(landmarkIndex.withinRadius(lat, lng, radius, types));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(landmarkIndex.all(types));
     }
 
     @PostMapping("/api/admin/landmarks")
@@ -292,6 +630,82 @@ public class MapController {
         }
 
         landmarkRepository.save(landmark);
+        landmarkIndex.add(landmark);
+        eventPublisher.publishEvent(new LandmarkChangedEvent(landmark.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(landmark);
     }
-}
\ No newline at end of file
+
+    // --- GEOFENCES ---
+
+    @PostMapping("/api/admin/geofences")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> createGeofence(@Valid @RequestBody GeofenceCreateDTO dto) {
+        Geofence geofence = new Geofence();
+        geofence.setName(dto.getName());
+        geofence.setShape(dto.getShape());
+        geofence.setLandmarkId(dto.getLandmarkId());
+        geofence.setCenterLat(dto.getLat());
+        geofence.setCenterLng(dto.getLng());
+        geofence.setRadiusMeters(dto.getRadiusMeters());
+        geofence.setDwellSeconds(dto.getDwellSeconds());
+        if (dto.getPoints() != null) {
+            geofence.setPolygon(dto.getPoints().stream()
+                    .map(p -> p.size() == 2 ? p.get(0) + "," + p.get(1) : "")
+                    .collect(Collectors.joining(";")));
+        }
+
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(geofenceEngine.create(geofence));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/api/admin/geofences")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> listGeofences() {
+        return ResponseEntity.ok(geofenceEngine.list());
+    }
+
+    @DeleteMapping("/api/admin/geofences/{id}")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> deleteGeofence(@PathVariable Long id) {
+        if (!geofenceEngine.deactivate(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Geofence removed"));
+    }
+
+    @GetMapping("/api/admin/geofences/events")
+    @ResponseBody
+    @PreAuthorize("hasRole('DISPATCHER')")
+    public ResponseEntity<?> getGeofenceEvents(@RequestParam(required = false) Long geofenceId,
+                                               @RequestParam(required = false) Long driverId,
+                                               @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Limit must be between 1 and 1000"));
+        }
+        return ResponseEntity.ok(geofenceEngine.recentEvents(geofenceId, driverId, limit));
+    }
+
+    // --- NEARBY SERVICES (POI PROXY) ---
+
+    @GetMapping("/api/poi")
+    @ResponseBody
+    public ResponseEntity<?> getNearbyPois(@RequestParam String type,
+                                           @RequestParam Double lat,
+                                           @RequestParam Double lng,
+                                           @RequestParam(defaultValue = "3000") Double radius) {
+        // Cached per tile on the server; upstream (Overpass) is hit only for expired tiles
+        try {
+            return ResponseEntity.ok(poiService.nearby(type.toUpperCase(), lat, lng, radius));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException | DataAccessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", "POI service unavailable"));
+        }
+    }
+}
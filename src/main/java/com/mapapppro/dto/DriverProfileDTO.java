@@ -0,0 +1,32 @@
+package com.mapapppro.dto;
+
+import com.mapapppro.model.User;
+
+public class DriverProfileDTO {
+
+    private final Long id;
+    private final String username;
+    private final String fullName;
+    private final String plateNo;
+    private final String shiftSchedule;
+
+    public DriverProfileDTO(Long id, String username, String fullName, String plateNo, String shiftSchedule) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.plateNo = plateNo;
+        this.shiftSchedule = shiftSchedule;
+    }
+
+    public static DriverProfileDTO from(User user) {
+        return new DriverProfileDTO(user.getId(), user.getUsername(), user.getFullName(), user.getPlateNo(),
+                user.getShiftSchedule());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getFullName() { return fullName; }
+    public String getPlateNo() { return plateNo; }
+    public String getShiftSchedule() { return shiftSchedule; }
+}
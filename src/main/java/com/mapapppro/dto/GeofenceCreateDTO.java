@@ -0,0 +1,55 @@
+package com.mapapppro.dto;
+
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+public class GeofenceCreateDTO {
+
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+
+    @NotBlank(message = "Shape is required")
+    @Pattern(regexp = "^(CIRCLE|POLYGON)$", message = "Shape must be CIRCLE or POLYGON")
+    private String shape;
+
+    // CIRCLE: either a landmark or an explicit center
+    private Long landmarkId;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double lat;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double lng;
+
+    @Positive(message = "Radius must be positive")
+    @Max(value = 50000, message = "Radius must be at most 50 km")
+    private Double radiusMeters;
+
+    // POLYGON: [[lat, lng], ...]
+    @Size(min = 3, max = 1000, message = "Polygon must have 3 to 1000 points")
+    private List<List<Double>> points;
+
+    @Positive(message = "Dwell time must be positive")
+    private Integer dwellSeconds;
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getShape() { return shape; }
+    public void setShape(String shape) { this.shape = shape; }
+    public Long getLandmarkId() { return landmarkId; }
+    public void setLandmarkId(Long landmarkId) { this.landmarkId = landmarkId; }
+    public Double getLat() { return lat; }
+    public void setLat(Double lat) { this.lat = lat; }
+    public Double getLng() { return lng; }
+    public void setLng(Double lng) { this.lng = lng; }
+    public Double getRadiusMeters() { return radiusMeters; }
+    public void setRadiusMeters(Double radiusMeters) { this.radiusMeters = radiusMeters; }
+    public List<List<Double>> getPoints() { return points; }
+    public void setPoints(List<List<Double>> points) { this.points = points; }
+    public Integer getDwellSeconds() { return dwellSeconds; }
+    public void setDwellSeconds(Integer dwellSeconds) { this.dwellSeconds = dwellSeconds; }
+}
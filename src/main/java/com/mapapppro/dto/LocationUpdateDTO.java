@@ -16,6 +16,10 @@ public class LocationUpdateDTO {
     
     @Pattern(regexp = "^(MOVING|IDLE|STOPPED)$", message = "Status must be MOVING, IDLE, or STOPPED")
     private String status = "MOVING";
+
+    // Client fix time in epoch milliseconds (e.g. GeolocationPosition.timestamp); optional for live updates
+    @Positive(message = "Timestamp must be epoch milliseconds")
+    private Long timestamp;
     
     // Default constructor
     public LocationUpdateDTO() {}
@@ -35,4 +39,7 @@ public class LocationUpdateDTO {
     
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+
+    public Long getTimestamp() { return timestamp; }
+    public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
 }
@@ -0,0 +1,42 @@
+package com.mapapppro.dto;
+
+/**
+ * What the admin user list shows; built directly by the JPQL query so no
+ * password hash or Spring Security state ever leaves the repository.
+ */
+public class UserSummaryDTO {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final String fullName;
+    private final String licenseNo;
+    private final String plateNo;
+    private final String phone;
+    private final String shiftSchedule;
+    private final boolean active;
+
+    public UserSummaryDTO(Long id, String username, String role, String fullName, String licenseNo,
+                          String plateNo, String phone, String shiftSchedule, boolean active) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.fullName = fullName;
+        this.licenseNo = licenseNo;
+        this.plateNo = plateNo;
+        this.phone = phone;
+        this.shiftSchedule = shiftSchedule;
+        this.active = active;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getRole() { return role; }
+    public String getFullName() { return fullName; }
+    public String getLicenseNo() { return licenseNo; }
+    public String getPlateNo() { return plateNo; }
+    public String getPhone() { return phone; }
+    public String getShiftSchedule() { return shiftSchedule; }
+    public boolean isActive() { return active; }
+}
@@ -0,0 +1,75 @@
+package com.mapapppro.event;
+
+import com.mapapppro.model.TripLog;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change that every node's in-memory state must see: a driver's new
+ * position, a message waiting for a driver, an edited user, a bulk import
+ * (USERS: the imported id range in subjectId and detail), or a created or
+ * removed landmark or geofence. Sent over
+ * the FleetEventBus, and published as an application event on the nodes
+ * that receive it.
+ */
+public class FleetEvent {
+
+    public enum Kind { POSITION, MESSAGE, USER, USERS, LANDMARK, GEOFENCE }
+
+    private final Kind kind;
+    private final Long subjectId;
+    private final Double latitude;
+    private final Double longitude;
+    private final String status;
+    private final LocalDateTime eventTime;
+    private final String detail;
+
+    public FleetEvent(Kind kind, Long subjectId, Double latitude, Double longitude,
+                      String status, LocalDateTime eventTime, String detail) {
+        this.kind = kind;
+        this.subjectId = subjectId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.status = status;
+        this.eventTime = eventTime;
+        this.detail = detail;
+    }
+
+    public static FleetEvent position(TripLog fix) {
+        return new FleetEvent(Kind.POSITION, fix.getDriverId(), fix.getLatitude(), fix.getLongitude(),
+                fix.getStatus(), fix.getTimestamp(), null);
+    }
+
+    public static FleetEvent message(Long driverId) {
+        return new FleetEvent(Kind.MESSAGE, driverId, null, null, null, null, null);
+    }
+
+    public static FleetEvent user(Long userId, String username) {
+        return new FleetEvent(Kind.USER, userId, null, null, null, null, username);
+    }
+
+    public static FleetEvent landmark(Long landmarkId) {
+        return new FleetEvent(Kind.LANDMARK, landmarkId, null, null, null, null, null);
+    }
+
+    public static FleetEvent geofence(Long geofenceId) {
+        return new FleetEvent(Kind.GEOFENCE, geofenceId, null, null, null, null, null);
+    }
+
+    public static FleetEvent usersImported(long firstId, long lastId) {
+        return new FleetEvent(Kind.USERS, firstId, null, null, null, null, Long.toString(lastId));
+    }
+
+    /** The fix carried by a POSITION event; it has no id on this node. */
+    public TripLog toTripLog() {
+        return new TripLog(subjectId, latitude, longitude, status, eventTime);
+    }
+
+    public Kind getKind() { return kind; }
+    public Long getSubjectId() { return subjectId; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public String getStatus() { return status; }
+    public LocalDateTime getEventTime() { return eventTime; }
+    public String getDetail() { return detail; }
+}
@@ -0,0 +1,24 @@
+package com.mapapppro.event;
+
+/**
+ * Published after a geofence is created or deactivated so that every node
+ * evaluates fixes against the same zones. Changes made on another node
+ * arrive as the same event, marked remote.
+ */
+public class GeofenceChangedEvent {
+
+    private final Long geofenceId;
+    private final boolean remote;
+
+    public GeofenceChangedEvent(Long geofenceId) {
+        this(geofenceId, false);
+    }
+
+    public GeofenceChangedEvent(Long geofenceId, boolean remote) {
+        this.geofenceId = geofenceId;
+        this.remote = remote;
+    }
+
+    public Long getGeofenceId() { return geofenceId; }
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,24 @@
+package com.mapapppro.event;
+
+/**
+ * Published after a landmark is created so that every node's landmark index
+ * and ETag version follow. Changes made on another node arrive as the same
+ * event, marked remote.
+ */
+public class LandmarkChangedEvent {
+
+    private final Long landmarkId;
+    private final boolean remote;
+
+    public LandmarkChangedEvent(Long landmarkId) {
+        this(landmarkId, false);
+    }
+
+    public LandmarkChangedEvent(Long landmarkId, boolean remote) {
+        this.landmarkId = landmarkId;
+        this.remote = remote;
+    }
+
+    public Long getLandmarkId() { return landmarkId; }
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,38 @@
+package com.mapapppro.event;
+
+import com.mapapppro.model.TripLog;
+
+/**
+ * Published on the request thread for every fix accepted by the ingestion
+ * pipeline. Listeners must stay cheap and non-blocking.
+ *
+ * With several instances the same fix is published again on every other
+ * node, marked remote, once it arrives over the FleetEventBus. Live views
+ * (registry, stream, ETags) take both. Per-driver analytics that persist
+ * (KPIs, segments, geofences) must skip remote fixes: each driver's session
+ * is pinned to one node, which alone owns that driver's history.
+ */
+public class TripLogAcceptedEvent {
+
+    private final TripLog tripLog;
+    private final boolean latest;
+    private final boolean remote;
+
+    public TripLogAcceptedEvent(TripLog tripLog, boolean latest) {
+        this(tripLog, latest, false);
+    }
+
+    public TripLogAcceptedEvent(TripLog tripLog, boolean latest, boolean remote) {
+        this.tripLog = tripLog;
+        this.latest = latest;
+        this.remote = remote;
+    }
+
+    public TripLog getTripLog() { return tripLog; }
+
+    // True when the fix became the driver's current position on the live map
+    public boolean isLatest() { return latest; }
+
+    // True when the fix was accepted on another node
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,27 @@
+package com.mapapppro.event;
+
+/**
+ * Published after a user row is created, updated or deactivated so that
+ * in-memory copies of the user can be dropped. Changes made on another
+ * node arrive as the same event, marked remote.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String username;
+    private final boolean remote;
+
+    public UserChangedEvent(Long userId, String username) {
+        this(userId, username, false);
+    }
+
+    public UserChangedEvent(Long userId, String username, boolean remote) {
+        this.userId = userId;
+        this.username = username;
+        this.remote = remote;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public boolean isRemote() { return remote; }
+}
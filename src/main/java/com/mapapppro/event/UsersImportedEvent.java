@@ -0,0 +1,28 @@
+package com.mapapppro.event;
+
+/**
+ * Published once per bulk import instead of a UserChangedEvent per row.
+ * Carries the id range the new users fall in; ids in the range that were
+ * not imported belong to existing users, so refreshing them is harmless.
+ * Imports on another node arrive as the same event, marked remote.
+ */
+public class UsersImportedEvent {
+
+    private final long firstId;
+    private final long lastId;
+    private final boolean remote;
+
+    public UsersImportedEvent(long firstId, long lastId) {
+        this(firstId, lastId, false);
+    }
+
+    public UsersImportedEvent(long firstId, long lastId, boolean remote) {
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.remote = remote;
+    }
+
+    public long getFirstId() { return firstId; }
+    public long getLastId() { return lastId; }
+    public boolean isRemote() { return remote; }
+}
@@ -0,0 +1,58 @@
+package com.mapapppro.geo;
+
+/**
+ * Latitude/longitude rectangle. Boxes crossing the antimeridian are not supported.
+ */
+public class BoundingBox {
+
+    private final double minLat;
+    private final double minLng;
+    private final double maxLat;
+    private final double maxLng;
+
+    public BoundingBox(double minLat, double minLng, double maxLat, double maxLng) {
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new IllegalArgumentException("Bounding box min corner must be south-west of max corner");
+        }
+        this.minLat = Math.max(minLat, -90.0);
+        this.minLng = Math.max(minLng, -180.0);
+        this.maxLat = Math.min(maxLat, 90.0);
+        this.maxLng = Math.min(maxLng, 180.0);
+    }
+
+    /**
+     * Parses "minLng,minLat,maxLng,maxLat", the order produced by Leaflet's
+     * LatLngBounds.toBBoxString().
+     */
+    public static BoundingBox parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        try {
+            return new BoundingBox(
+                    Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[3].trim()), Double.parseDouble(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must contain four numbers");
+        }
+    }
+
+    /**
+     * Smallest box containing the circle of the given radius around a point.
+     */
+    public static BoundingBox around(double lat, double lng, double radiusMeters) {
+        double dLat = radiusMeters / GeoUtils.METERS_PER_DEGREE_LAT;
+        double dLng = radiusMeters / GeoUtils.metersPerDegreeLng(Math.min(Math.abs(lat) + dLat, 89.9));
+        return new BoundingBox(lat - dLat, lng - dLng, lat + dLat, lng + dLng);
+    }
+
+    public boolean contains(double lat, double lng) {
+        return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+
+    public double getMinLat() { return minLat; }
+    public double getMinLng() { return minLng; }
+    public double getMaxLat() { return maxLat; }
+    public double getMaxLng() { return maxLng; }
+}
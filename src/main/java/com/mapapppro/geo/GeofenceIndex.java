@@ -0,0 +1,167 @@
+package com.mapapppro.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform lat/lng grid over areas (circles and polygons). Each zone is
+ * registered in every cell its bounding box touches, so a point query only
+ * tests the handful of zones sharing its cell. Zones too large to register
+ * cell by cell are kept in a separate list and tested by bounding box first.
+ *
+ * Zones change rarely and are looked up on every ingested fix, so writes
+ * rebuild an immutable snapshot and reads never lock.
+ */
+public class GeofenceIndex {
+
+    // A zone covering more cells than this goes into the large-zone list
+    private static final int MAX_CELLS_PER_ZONE = 4096;
+
+    private final double cellDegrees;
+    private final Map<Long, Zone> zones = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+
+    private record Snapshot(Map<Long, List<Zone>> cells, List<Zone> large) {}
+
+    public GeofenceIndex(double cellDegrees) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("cellDegrees must be positive");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    public synchronized void put(Zone zone) {
+        zones.put(zone.getId(), zone);
+        rebuild();
+    }
+
+    public synchronized void putAll(List<Zone> added) {
+        added.forEach(zone -> zones.put(zone.getId(), zone));
+        rebuild();
+    }
+
+    public synchronized void remove(long id) {
+        if (zones.remove(id) != null) {
+            rebuild();
+        }
+    }
+
+    public synchronized int size() {
+        return zones.size();
+    }
+
+    /**
+     * @return the zones containing the point
+     */
+    public List<Zone> containing(double lat, double lng) {
+        Snapshot current = snapshot;
+        List<Zone> result = new ArrayList<>(2);
+        List<Zone> candidates = current.cells.get(SpatialGrid.cellKey(row(lat), col(lng)));
+        if (candidates != null) {
+            for (Zone zone : candidates) {
+                if (zone.contains(lat, lng)) result.add(zone);
+            }
+        }
+        for (Zone zone : current.large) {
+            if (zone.getBounds().contains(lat, lng) && zone.contains(lat, lng)) result.add(zone);
+        }
+        return result;
+    }
+
+    private void rebuild() {
+        Map<Long, List<Zone>> cells = new HashMap<>();
+        List<Zone> large = new ArrayList<>();
+        for (Zone zone : zones.values()) {
+            BoundingBox b = zone.getBounds();
+            int minRow = row(b.getMinLat()), maxRow = row(b.getMaxLat());
+            int minCol = col(b.getMinLng()), maxCol = col(b.getMaxLng());
+            if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) > MAX_CELLS_PER_ZONE) {
+                large.add(zone);
+                continue;
+            }
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    cells.computeIfAbsent(SpatialGrid.cellKey(r, c), k -> new ArrayList<>(2)).add(zone);
+                }
+            }
+        }
+        snapshot = new Snapshot(cells, large);
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    private int col(double lng) {
+        return (int) Math.floor(lng / cellDegrees);
+    }
+
+    /**
+     * A circle or a simple polygon. Polygon containment uses ray casting on
+     * raw degrees, which is accurate enough at city scale.
+     */
+    public static final class Zone {
+        private final long id;
+        private final double centerLat;
+        private final double centerLng;
+        private final double radiusMeters;
+        private final double[] lats;
+        private final double[] lngs;
+        private final BoundingBox bounds;
+
+        private Zone(long id, double centerLat, double centerLng, double radiusMeters,
+                     double[] lats, double[] lngs, BoundingBox bounds) {
+            this.id = id;
+            this.centerLat = centerLat;
+            this.centerLng = centerLng;
+            this.radiusMeters = radiusMeters;
+            this.lats = lats;
+            this.lngs = lngs;
+            this.bounds = bounds;
+        }
+
+        public static Zone circle(long id, double lat, double lng, double radiusMeters) {
+            if (radiusMeters <= 0) {
+                throw new IllegalArgumentException("Radius must be positive");
+            }
+            return new Zone(id, lat, lng, radiusMeters, null, null, BoundingBox.around(lat, lng, radiusMeters));
+        }
+
+        public static Zone polygon(long id, double[] lats, double[] lngs) {
+            if (lats.length != lngs.length || lats.length < 3) {
+                throw new IllegalArgumentException("Polygon needs at least three points");
+            }
+            double minLat = Double.MAX_VALUE, minLng = Double.MAX_VALUE;
+            double maxLat = -Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+            for (int i = 0; i < lats.length; i++) {
+                minLat = Math.min(minLat, lats[i]);
+                maxLat = Math.max(maxLat, lats[i]);
+                minLng = Math.min(minLng, lngs[i]);
+                maxLng = Math.max(maxLng, lngs[i]);
+            }
+            return new Zone(id, 0, 0, 0, lats.clone(), lngs.clone(), new BoundingBox(minLat, minLng, maxLat, maxLng));
+        }
+
+        public boolean contains(double lat, double lng) {
+            if (lats == null) {
+                return GeoUtils.haversineMeters(centerLat, centerLng, lat, lng) <= radiusMeters;
+            }
+            if (!bounds.contains(lat, lng)) {
+                return false;
+            }
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        public long getId() { return id; }
+        public BoundingBox getBounds() { return bounds; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mapapppro.geo;
+
+import java.io.IOException;
+
+/**
+ * Incremental encoder for the Google encoded polyline format (precision 5).
+ * Points are appended one at a time as deltas from the previous point, so a
+ * track can be written out without holding it in memory.
+ */
+public class PolylineEncoder {
+
+    private final Appendable out;
+    private long previousLat;
+    private long previousLng;
+
+    public PolylineEncoder(Appendable out) {
+        this.out = out;
+    }
+
+    public void append(double lat, double lng) throws IOException {
+        long latE5 = Math.round(lat * 1e5);
+        long lngE5 = Math.round(lng * 1e5);
+        encode(latE5 - previousLat);
+        encode(lngE5 - previousLng);
+        previousLat = latE5;
+        previousLng = lngE5;
+    }
+
+    private void encode(long delta) throws IOException {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            out.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        out.append((char) (value + 63));
+    }
+}
@@ -0,0 +1,276 @@
+package com.mapapppro.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Uniform lat/lng grid over keyed points. Each point lives in exactly one
+ * cell and moves between cells when it is put again with new coordinates,
+ * so the grid can index both static POIs and moving vehicles.
+ *
+ * Writes are serialised; reads are lock-free and may observe a concurrent
+ * move in either its old or its new cell.
+ */
+public class SpatialGrid<K, V> {
+
+    private final double cellDegrees;
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<K, Entry<K, V>>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    public SpatialGrid(double cellDegrees) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("cellDegrees must be positive");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    public synchronized void put(K key, double lat, double lng, V value) {
+        Entry<K, V> entry = new Entry<>(key, lat, lng, value);
+        Entry<K, V> previous = entries.put(key, entry);
+        long cell = cellOf(lat, lng);
+        if (previous != null) {
+            long previousCell = cellOf(previous.lat, previous.lng);
+            if (previousCell != cell) {
+                removeFromCell(previousCell, key);
+            }
+        }
+        cells.computeIfAbsent(cell, c -> new ConcurrentHashMap<>()).put(key, entry);
+    }
+
+    public synchronized void remove(K key) {
+        Entry<K, V> previous = entries.remove(key);
+        if (previous != null) {
+            removeFromCell(cellOf(previous.lat, previous.lng), key);
+        }
+    }
+
+    public V get(K key) {
+        Entry<K, V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public List<V> values() {
+        List<V> result = new ArrayList<>(entries.size());
+        for (Entry<K, V> entry : entries.values()) {
+            result.add(entry.value);
+        }
+        return result;
+    }
+
+    public List<V> within(BoundingBox box, Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        for (Entry<K, V> entry : entriesWithin(box)) {
+            if (filter.test(entry.value)) {
+                result.add(entry.value);
+            }
+        }
+        return result;
+    }
+
+    public List<V> withinRadius(double lat, double lng, double radiusMeters, Predicate<V> filter) {
+        List<V> result = new ArrayList<>();
+        for (Entry<K, V> entry : entriesWithin(BoundingBox.around(lat, lng, radiusMeters))) {
+            if (GeoUtils.haversineMeters(lat, lng, entry.lat, entry.lng) <= radiusMeters && filter.test(entry.value)) {
+                result.add(entry.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The k entries nearest to the point by great-circle distance, nearest
+     * first. Cells are visited in growing square rings around the point's
+     * cell, keeping the k best in a max-heap. The search stops once the next
+     * ring cannot hold anything closer than the current k-th entry, so the
+     * cost depends on local density, not on the size of the grid.
+     */
+    public List<Neighbor<V>> nearest(double lat, double lng, int k, Predicate<V> filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Neighbor<V>> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble((Neighbor<V> n) -> n.distanceMeters).reversed());
+        int row0 = row(lat);
+        int col0 = col(lng);
+        for (int d = 0; ; d++) {
+            if ((long) (2 * d + 1) * (2 * d + 1) > 4L * cells.size()) {
+                // Sparse grid or too few matches: cheaper to walk the occupied cells
+                best.clear();
+                for (Map<K, Entry<K, V>> cell : cells.values()) {
+                    offerAll(cell.values(), lat, lng, k, filter, best);
+                }
+                break;
+            }
+            if (d == 0) {
+                offerCell(row0, col0, lat, lng, k, filter, best);
+            } else {
+                for (int c = col0 - d; c <= col0 + d; c++) {
+                    offerCell(row0 - d, c, lat, lng, k, filter, best);
+                    offerCell(row0 + d, c, lat, lng, k, filter, best);
+                }
+                for (int r = row0 - d + 1; r <= row0 + d - 1; r++) {
+                    offerCell(r, col0 - d, lat, lng, k, filter, best);
+                    offerCell(r, col0 + d, lat, lng, k, filter, best);
+                }
+            }
+            if (best.size() == k && distanceBeyondRing(lat, lng, row0, col0, d) >= best.peek().distanceMeters) {
+                break;
+            }
+        }
+        List<Neighbor<V>> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(n -> n.distanceMeters));
+        return result;
+    }
+
+    private void offerCell(int row, int col, double lat, double lng, int k, Predicate<V> filter,
+                           PriorityQueue<Neighbor<V>> best) {
+        Map<K, Entry<K, V>> cell = cells.get(cellKey(row, col));
+        if (cell != null) {
+            offerAll(cell.values(), lat, lng, k, filter, best);
+        }
+    }
+
+    private void offerAll(Collection<Entry<K, V>> candidates, double lat, double lng, int k, Predicate<V> filter,
+                          PriorityQueue<Neighbor<V>> best) {
+        for (Entry<K, V> entry : candidates) {
+            double distance = GeoUtils.haversineMeters(lat, lng, entry.lat, entry.lng);
+            if (best.size() == k && distance >= best.peek().distanceMeters) continue;
+            if (!filter.test(entry.value)) continue;
+            // A point moved between cells during the walk can be seen twice
+            if (containsKey(best, entry.key)) continue;
+            best.add(new Neighbor<>(entry.key, entry.value, distance));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+    }
+
+    private static <K, V> boolean containsKey(PriorityQueue<Neighbor<V>> best, K key) {
+        for (Neighbor<V> n : best) {
+            if (n.key.equals(key)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lower bound on the distance from the point to anything outside the
+     * square of cells within d rings of its own cell: the nearest of the
+     * square's parallels, or the great-circle distance to its nearest meridian.
+     */
+    private double distanceBeyondRing(double lat, double lng, int row0, int col0, int d) {
+        double latGap = Math.min(lat - (row0 - d) * cellDegrees, (row0 + d + 1) * cellDegrees - lat);
+        double lngGap = Math.min(lng - (col0 - d) * cellDegrees, (col0 + d + 1) * cellDegrees - lng);
+        double toParallel = latGap * GeoUtils.METERS_PER_DEGREE_LAT;
+        double toMeridian = GeoUtils.EARTH_RADIUS_METERS * Math.asin(Math.min(1.0,
+                Math.cos(Math.toRadians(lat)) * Math.sin(Math.toRadians(Math.min(lngGap, 90)))));
+        return Math.min(toParallel, toMeridian);
+    }
+
+    private List<Entry<K, V>> entriesWithin(BoundingBox box) {
+        int minRow = row(box.getMinLat());
+        int maxRow = row(box.getMaxLat());
+        int minCol = col(box.getMinLng());
+        int maxCol = col(box.getMaxLng());
+        long cellsInBox = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+        List<Entry<K, V>> result = new ArrayList<>();
+        if (cellsInBox > cells.size()) {
+            // Zoomed far out: cheaper to walk the occupied cells than the box
+            for (Map<K, Entry<K, V>> cell : cells.values()) {
+                collect(cell.values(), box, result);
+            }
+            return result;
+        }
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                Map<K, Entry<K, V>> cell = cells.get(cellKey(r, c));
+                if (cell != null) {
+                    collect(cell.values(), box, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <K, V> void collect(Collection<Entry<K, V>> candidates, BoundingBox box, List<Entry<K, V>> out) {
+        for (Entry<K, V> entry : candidates) {
+            if (box.contains(entry.lat, entry.lng)) {
+                out.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCell(long cell, K key) {
+        Map<K, Entry<K, V>> members = cells.get(cell);
+        if (members != null) {
+            members.remove(key);
+            if (members.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public int row(double lat) {
+        return (int) Math.floor(lat / cellDegrees);
+    }
+
+    public int col(double lng) {
+        return (int) Math.floor(lng / cellDegrees);
+    }
+
+    public static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private long cellOf(double lat, double lng) {
+        return cellKey(row(lat), col(lng));
+    }
+
+    public static final class Neighbor<V> {
+        private final Object key;
+        private final V value;
+        private final double distanceMeters;
+
+        Neighbor(Object key, V value, double distanceMeters) {
+            this.key = key;
+            this.value = value;
+            this.distanceMeters = distanceMeters;
+        }
+
+        public V getValue() { return value; }
+        public double getDistanceMeters() { return distanceMeters; }
+    }
+
+    public static final class Entry<K, V> {
+        private final K key;
+        private final double lat;
+        private final double lng;
+        private final V value;
+
+        Entry(K key, double lat, double lng, V value) {
+            this.key = key;
+            this.lat = lat;
+            this.lng = lng;
+            this.value = value;
+        }
+
+        public K getKey() { return key; }
+        public double getLat() { return lat; }
+        public double getLng() { return lng; }
+        public V getValue() { return value; }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals for one driver in one shift, maintained from the fix
+ * stream rather than by rescanning trip_logs.
+ */
+@Entity
+@Table(name = "driver_shift_kpis", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_driver_shift_kpis_driver_date_shift", columnNames = {"driver_id", "shift_date", "shift"})
+}, indexes = {
+    @Index(name = "idx_driver_shift_kpis_date", columnList = "shift_date")
+})
+public class DriverShiftKpi {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    @Column(name = "shift_date", nullable = false)
+    private LocalDate shiftDate;
+
+    @Column(name = "shift", nullable = false, length = 20)
+    private String shift; // "AM", "PM" or "UNASSIGNED"
+
+    private double distanceMeters;
+    private long movingSeconds;
+    private long idleSeconds;
+    private long stoppedSeconds;
+    private long pointCount;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DriverShiftKpi() {}
+
+    public DriverShiftKpi(Long driverId, LocalDate shiftDate, String shift) {
+        this.driverId = driverId;
+        this.shiftDate = shiftDate;
+        this.shift = shift;
+    }
+
+    // Adds totals accumulated since the last flush
+    public void add(double distanceMeters, long movingSeconds, long idleSeconds, long stoppedSeconds, long pointCount) {
+        this.distanceMeters += distanceMeters;
+        this.movingSeconds += movingSeconds;
+        this.idleSeconds += idleSeconds;
+        this.stoppedSeconds += stoppedSeconds;
+        this.pointCount += pointCount;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Distance over moving time only, so parked time does not dilute it
+    public double getAverageSpeedKmh() {
+        return movingSeconds > 0 ? distanceMeters / movingSeconds * 3.6 : 0.0;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public LocalDate getShiftDate() { return shiftDate; }
+    public void setShiftDate(LocalDate shiftDate) { this.shiftDate = shiftDate; }
+    public String getShift() { return shift; }
+    public void setShift(String shift) { this.shift = shift; }
+    public double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(double distanceMeters) { this.distanceMeters = distanceMeters; }
+    public long getMovingSeconds() { return movingSeconds; }
+    public void setMovingSeconds(long movingSeconds) { this.movingSeconds = movingSeconds; }
+    public long getIdleSeconds() { return idleSeconds; }
+    public void setIdleSeconds(long idleSeconds) { this.idleSeconds = idleSeconds; }
+    public long getStoppedSeconds() { return stoppedSeconds; }
+    public void setStoppedSeconds(long stoppedSeconds) { this.stoppedSeconds = stoppedSeconds; }
+    public long getPointCount() { return pointCount; }
+    public void setPointCount(long pointCount) { this.pointCount = pointCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
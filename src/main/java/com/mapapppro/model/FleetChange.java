@@ -0,0 +1,61 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the cross-node change feed. JdbcFleetEventBus writes and tails
+ * this table with plain JDBC, and creates it at startup if it is missing;
+ * it is mapped so the schema is managed with the other tables. Rows are
+ * kept for a few minutes.
+ */
+@Entity
+@Table(name = "fleet_changes", indexes = {
+    @Index(name = "idx_fleet_changes_created_at", columnList = "created_at")
+})
+public class FleetChange {
+
+    // IDENTITY, so ids follow insert order closely enough to tail by id
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "node_id", nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(name = "kind", nullable = false, length = 16)
+    private String kind; // a FleetEvent.Kind name
+
+    // Driver for POSITION and MESSAGE, user for USER
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    private Double latitude;
+    private Double longitude;
+
+    @Column(length = 50)
+    private String status;
+
+    @Column(name = "event_time")
+    private LocalDateTime eventTime;
+
+    // Username for USER
+    @Column(length = 255)
+    private String detail;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public FleetChange() {}
+
+    public Long getId() { return id; }
+    public String getNodeId() { return nodeId; }
+    public String getKind() { return kind; }
+    public Long getSubjectId() { return subjectId; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public String getStatus() { return status; }
+    public LocalDateTime getEventTime() { return eventTime; }
+    public String getDetail() { return detail; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
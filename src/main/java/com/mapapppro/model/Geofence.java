@@ -0,0 +1,61 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A dispatcher-defined zone: a radius around a point (usually a Landmark)
+ * or a polygon. Polygons are stored as "lat,lng;lat,lng;...".
+ */
+@Entity
+@Table(name = "geofences")
+public class Geofence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+    private String shape; // "CIRCLE" or "POLYGON"
+
+    @Column(name = "landmark_id")
+    private Long landmarkId;
+
+    private Double centerLat;
+    private Double centerLng;
+    private Double radiusMeters;
+
+    @Column(columnDefinition = "TEXT")
+    private String polygon;
+
+    // Emit a DWELL event once a driver has stayed this long; null disables it
+    private Integer dwellSeconds;
+
+    private boolean active = true;
+    private LocalDateTime createdAt;
+
+    public Geofence() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getShape() { return shape; }
+    public void setShape(String shape) { this.shape = shape; }
+    public Long getLandmarkId() { return landmarkId; }
+    public void setLandmarkId(Long landmarkId) { this.landmarkId = landmarkId; }
+    public Double getCenterLat() { return centerLat; }
+    public void setCenterLat(Double centerLat) { this.centerLat = centerLat; }
+    public Double getCenterLng() { return centerLng; }
+    public void setCenterLng(Double centerLng) { this.centerLng = centerLng; }
+    public Double getRadiusMeters() { return radiusMeters; }
+    public void setRadiusMeters(Double radiusMeters) { this.radiusMeters = radiusMeters; }
+    public String getPolygon() { return polygon; }
+    public void setPolygon(String polygon) { this.polygon = polygon; }
+    public Integer getDwellSeconds() { return dwellSeconds; }
+    public void setDwellSeconds(Integer dwellSeconds) { this.dwellSeconds = dwellSeconds; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,53 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "geofence_events", indexes = {
+    @Index(name = "idx_geofence_events_zone_ts", columnList = "geofence_id, timestamp"),
+    @Index(name = "idx_geofence_events_driver_ts", columnList = "driver_id, timestamp")
+})
+public class GeofenceEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "geofence_id", nullable = false)
+    private Long geofenceId;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    private String type; // "ENTER", "EXIT" or "DWELL"
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime timestamp;
+
+    public GeofenceEvent() {}
+
+    public GeofenceEvent(Long geofenceId, Long driverId, String type, Double latitude, Double longitude, LocalDateTime timestamp) {
+        this.geofenceId = geofenceId;
+        this.driverId = driverId;
+        this.type = type;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getGeofenceId() { return geofenceId; }
+    public void setGeofenceId(Long geofenceId) { this.geofenceId = geofenceId; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
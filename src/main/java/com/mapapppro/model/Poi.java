@@ -0,0 +1,60 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Point of interest copied from OpenStreetMap, cached per tile. Unlike
+ * Landmark these are not curated by dispatchers and are refreshed from
+ * upstream once their tile expires.
+ */
+@Entity
+@Table(name = "pois",
+       uniqueConstraints = @UniqueConstraint(name = "uk_pois_osm_type", columnNames = {"osmId", "type"}),
+       indexes = @Index(name = "idx_pois_tile", columnList = "tileKey"))
+public class Poi {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long osmId;
+
+    private String name;
+    private String type; // "GAS" or "REPAIR"
+    private Double latitude;
+    private Double longitude;
+
+    @Column(nullable = false)
+    private String tileKey;
+
+    private LocalDateTime fetchedAt;
+
+    public Poi() {}
+
+    public Poi(Long osmId, String name, String type, Double latitude, Double longitude) {
+        this.osmId = osmId;
+        this.name = name;
+        this.type = type;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getOsmId() { return osmId; }
+    public void setOsmId(Long osmId) { this.osmId = osmId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public String getTileKey() { return tileKey; }
+    public void setTileKey(String tileKey) { this.tileKey = tileKey; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(LocalDateTime fetchedAt) { this.fetchedAt = fetchedAt; }
+}
@@ -0,0 +1,33 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Records when a POI tile was last fetched from upstream, so tiles with no
+ * POIs at all are cached too.
+ */
+@Entity
+@Table(name = "poi_tiles")
+public class PoiTile {
+    @Id
+    private String tileKey; // "<TYPE>:<row>:<col>"
+
+    private LocalDateTime fetchedAt;
+    private int poiCount;
+
+    public PoiTile() {}
+
+    public PoiTile(String tileKey, LocalDateTime fetchedAt, int poiCount) {
+        this.tileKey = tileKey;
+        this.fetchedAt = fetchedAt;
+        this.poiCount = poiCount;
+    }
+
+    public String getTileKey() { return tileKey; }
+    public void setTileKey(String tileKey) { this.tileKey = tileKey; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(LocalDateTime fetchedAt) { this.fetchedAt = fetchedAt; }
+    public int getPoiCount() { return poiCount; }
+    public void setPoiCount(int poiCount) { this.poiCount = poiCount; }
+}
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trip_logs")
+@Table(name = "trip_logs", indexes = {
+    @Index(name = "idx_trip_logs_driver_ts", columnList = "driver_id, timestamp, id"),
+    @Index(name = "idx_trip_logs_timestamp", columnList = "timestamp")
+})
 public class TripLog {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts.
+    // MySQL has no sequences, so Hibernate backs this with the trip_logs_seq table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_logs_seq")
+    @SequenceGenerator(name = "trip_logs_seq", sequenceName = "trip_logs_seq", allocationSize = TripLog.ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(name = "driver_id", nullable = false)
@@ -36,6 +44,14 @@ public class TripLog {
         this.status = status;
         this.timestamp = LocalDateTime.now();
     }
+
+    public TripLog(Long driverId, Double latitude, Double longitude, String status, LocalDateTime timestamp) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.status = status;
+        this.timestamp = timestamp;
+    }
     
     // Getters and Setters
     public Long getId() {
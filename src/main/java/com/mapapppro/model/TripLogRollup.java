@@ -0,0 +1,84 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Downsampled trip_logs: one row per driver per time bucket, holding the
+ * last position seen in that bucket and how many raw points it replaced.
+ */
+@Entity
+@Table(name = "trip_log_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_trip_log_rollups_driver_bucket", columnNames = {"driver_id", "bucket_start"})
+})
+public class TripLogRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(name = "status", length = 50)
+    private String status;
+
+    // Timestamp of the raw point the position was taken from
+    @Column(name = "last_timestamp")
+    private LocalDateTime lastTimestamp;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    // A concurrent merge into the same bucket fails instead of losing counts
+    @Version
+    private long version;
+
+    // Constructors
+    public TripLogRollup() {}
+
+    public TripLogRollup(Long driverId, LocalDateTime bucketStart) {
+        this.driverId = driverId;
+        this.bucketStart = bucketStart;
+    }
+
+    // Folds a raw point into the bucket, keeping the latest position
+    public void add(TripLog log) {
+        pointCount++;
+        if (lastTimestamp == null || !log.getTimestamp().isBefore(lastTimestamp)) {
+            latitude = log.getLatitude();
+            longitude = log.getLongitude();
+            status = log.getStatus();
+            lastTimestamp = log.getTimestamp();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getLastTimestamp() { return lastTimestamp; }
+    public void setLastTimestamp(LocalDateTime lastTimestamp) { this.lastTimestamp = lastTimestamp; }
+    public int getPointCount() { return pointCount; }
+    public void setPointCount(int pointCount) { this.pointCount = pointCount; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
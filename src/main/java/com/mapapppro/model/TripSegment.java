@@ -0,0 +1,121 @@
+package com.mapapppro.model;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A stretch of one driver's track classified as a TRIP (moving between
+ * places) or a STOP (staying within the dwell radius long enough).
+ */
+@Entity
+@Table(name = "trip_segments", indexes = {
+    @Index(name = "idx_trip_segments_driver_end", columnList = "driver_id, end_time")
+})
+public class TripSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    @Column(nullable = false, length = 10)
+    private String type; // "TRIP" or "STOP"
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    private Double startLat;
+    private Double startLng;
+    private Double endLat;
+    private Double endLng;
+
+    // Bounding box of the points in the segment
+    private Double minLat;
+    private Double minLng;
+    private Double maxLat;
+    private Double maxLng;
+
+    private int pointCount;
+    private double distanceMeters;
+    private long durationSeconds;
+
+    // Constructors
+    public TripSegment() {}
+
+    public TripSegment(Long driverId, String type, TripLog first) {
+        this.driverId = driverId;
+        this.type = type;
+        this.startTime = first.getTimestamp();
+        this.startLat = first.getLatitude();
+        this.startLng = first.getLongitude();
+        this.minLat = this.maxLat = first.getLatitude();
+        this.minLng = this.maxLng = first.getLongitude();
+        moveEnd(first);
+        this.pointCount = 1;
+    }
+
+    // Appends a point reached after travelling the given distance
+    public void extend(TripLog point, double meters) {
+        minLat = Math.min(minLat, point.getLatitude());
+        maxLat = Math.max(maxLat, point.getLatitude());
+        minLng = Math.min(minLng, point.getLongitude());
+        maxLng = Math.max(maxLng, point.getLongitude());
+        pointCount++;
+        distanceMeters += meters;
+        moveEnd(point);
+    }
+
+    // Takes back the last points, ending the segment at an earlier point instead
+    public void retract(int points, double meters, TripLog newEnd) {
+        pointCount -= points;
+        distanceMeters = Math.max(0, distanceMeters - meters);
+        moveEnd(newEnd);
+    }
+
+    private void moveEnd(TripLog point) {
+        endTime = point.getTimestamp();
+        endLat = point.getLatitude();
+        endLng = point.getLongitude();
+        durationSeconds = Duration.between(startTime, endTime).getSeconds();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    public Double getStartLat() { return startLat; }
+    public void setStartLat(Double startLat) { this.startLat = startLat; }
+    public Double getStartLng() { return startLng; }
+    public void setStartLng(Double startLng) { this.startLng = startLng; }
+    public Double getEndLat() { return endLat; }
+    public void setEndLat(Double endLat) { this.endLat = endLat; }
+    public Double getEndLng() { return endLng; }
+    public void setEndLng(Double endLng) { this.endLng = endLng; }
+    public Double getMinLat() { return minLat; }
+    public void setMinLat(Double minLat) { this.minLat = minLat; }
+    public Double getMinLng() { return minLng; }
+    public void setMinLng(Double minLng) { this.minLng = minLng; }
+    public Double getMaxLat() { return maxLat; }
+    public void setMaxLat(Double maxLat) { this.maxLat = maxLat; }
+    public Double getMaxLng() { return maxLng; }
+    public void setMaxLng(Double maxLng) { this.maxLng = maxLng; }
+    public int getPointCount() { return pointCount; }
+    public void setPointCount(int pointCount) { this.pointCount = pointCount; }
+    public double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(double distanceMeters) { this.distanceMeters = distanceMeters; }
+    public long getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(long durationSeconds) { this.durationSeconds = durationSeconds; }
+}
@@ -2,9 +2,20 @@ package com.mapapppro.repository;
 
 import com.mapapppro.model.DriverMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DriverMessageRepository extends JpaRepository<DriverMessage, Long> {
     List<DriverMessage> findByDriverIdAndIsReadFalse(Long driverId);
+
+    // One UPDATE for the whole set instead of a save() per message
+    @Modifying
+    @Transactional
+    @Query("UPDATE DriverMessage m SET m.isRead = true WHERE m.id IN :ids")
+    int markRead(@Param("ids") Collection<Long> ids);
 }
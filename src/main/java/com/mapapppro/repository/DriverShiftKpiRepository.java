@@ -0,0 +1,14 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.DriverShiftKpi;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DriverShiftKpiRepository extends JpaRepository<DriverShiftKpi, Long> {
+    List<DriverShiftKpi> findByShiftDate(LocalDate shiftDate);
+
+    List<DriverShiftKpi> findByDriverIdInAndShiftDateIn(Collection<Long> driverIds, Collection<LocalDate> shiftDates);
+}
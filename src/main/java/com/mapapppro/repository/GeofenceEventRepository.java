@@ -0,0 +1,21 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.GeofenceEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface GeofenceEventRepository extends JpaRepository<GeofenceEvent, Long> {
+
+    // Newest first; either filter may be null
+    @Query("SELECT e FROM GeofenceEvent e " +
+           "WHERE (:geofenceId IS NULL OR e.geofenceId = :geofenceId) " +
+           "AND (:driverId IS NULL OR e.driverId = :driverId) " +
+           "ORDER BY e.timestamp DESC, e.id DESC")
+    List<GeofenceEvent> findRecent(@Param("geofenceId") Long geofenceId,
+                                   @Param("driverId") Long driverId,
+                                   Pageable pageable);
+}
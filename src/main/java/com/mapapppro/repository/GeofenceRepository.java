@@ -0,0 +1,10 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface GeofenceRepository extends JpaRepository<Geofence, Long> {
+    List<Geofence> findByActiveTrue();
+}
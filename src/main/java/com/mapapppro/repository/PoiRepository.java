@@ -0,0 +1,24 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.Poi;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PoiRepository extends JpaRepository<Poi, Long> {
+    List<Poi> findByTileKey(String tileKey);
+
+    // Called inside the tile refresh transaction
+    @Modifying
+    @Query("DELETE FROM Poi p WHERE p.tileKey = :tileKey")
+    int deleteByTileKey(@Param("tileKey") String tileKey);
+
+    // Frees the (osmId, type) keys a refreshed tile is about to insert, wherever they were stored
+    @Modifying
+    @Query("DELETE FROM Poi p WHERE p.type = :type AND p.osmId IN :osmIds")
+    int deleteByTypeAndOsmIdIn(@Param("type") String type, @Param("osmIds") Collection<Long> osmIds);
+}
@@ -0,0 +1,7 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.PoiTile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PoiTileRepository extends JpaRepository<PoiTile, String> {
+}
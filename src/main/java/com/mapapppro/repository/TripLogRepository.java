@@ -1,15 +1,35 @@
 package com.mapapppro.repository;
 
 import com.mapapppro.model.TripLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TripLogRepository extends JpaRepository<TripLog, Long> {
     
     // Custom query to get the LATEST location of every driver
     // This is the magic query for the "Live Map"
-    @Query("SELECT t FROM TripLog t WHERE t.id IN (SELECT MAX(t2.id) FROM TripLog t2 GROUP BY t2.driverId)")
+    // Latest by fix time, not id: batch uploads insert old fixes with new ids.
+    // Served by idx_trip_logs_driver_ts; ties come back in id order so the last one wins.
+    @Query("SELECT t FROM TripLog t WHERE (t.driverId, t.timestamp) IN " +
+           "(SELECT t2.driverId, MAX(t2.timestamp) FROM TripLog t2 GROUP BY t2.driverId) ORDER BY t.id")
     List<TripLog> findLatestLocations();
+
+    // Keyset page of one driver's track: rows after (afterTimestamp, afterId) and before "to".
+    // Served by idx_trip_logs_driver_ts; pass a Pageable only for its size.
+    @Query("SELECT t FROM TripLog t WHERE t.driverId = :driverId AND t.timestamp < :to " +
+           "AND (t.timestamp > :afterTimestamp OR (t.timestamp = :afterTimestamp AND t.id > :afterId)) " +
+           "ORDER BY t.timestamp, t.id")
+    List<TripLog> findHistoryPage(@Param("driverId") Long driverId,
+                                  @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                  @Param("afterId") Long afterId,
+                                  @Param("to") LocalDateTime to,
+                                  Pageable page);
+
+    // Oldest rows first, via idx_trip_logs_timestamp; used by the retention job
+    List<TripLog> findByTimestampBeforeOrderByTimestampAscIdAsc(LocalDateTime cutoff, Pageable page);
 }
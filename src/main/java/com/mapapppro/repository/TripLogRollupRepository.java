@@ -0,0 +1,12 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.TripLogRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TripLogRollupRepository extends JpaRepository<TripLogRollup, Long> {
+    List<TripLogRollup> findByDriverIdInAndBucketStartIn(Collection<Long> driverIds, Collection<LocalDateTime> bucketStarts);
+}
@@ -0,0 +1,17 @@
+package com.mapapppro.repository;
+
+import com.mapapppro.model.TripSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface TripSegmentRepository extends JpaRepository<TripSegment, Long> {
+    // A driver's segments follow one another, so ordering by end also orders by start
+    List<TripSegment> findByDriverIdAndEndTimeBetweenOrderByEndTimeAsc(
+            Long driverId, LocalDateTime from, LocalDateTime to);
+
+    // The only segment that can end after 'to' and still overlap it
+    Optional<TripSegment> findFirstByDriverIdAndEndTimeGreaterThanOrderByEndTimeAsc(Long driverId, LocalDateTime to);
+}
@@ -1,8 +1,52 @@
 package com.mapapppro.repository;
 
+import com.mapapppro.dto.UserSummaryDTO;
 import com.mapapppro.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
-}
\ No newline at end of file
+
+    // Which of these usernames are taken, in one query (for bulk imports)
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findUsernamesIn(@Param("usernames") Collection<String> usernames);
+
+    String SUMMARY = "SELECT new com.mapapppro.dto.UserSummaryDTO(u.id, u.username, u.role, u.fullName, " +
+                     "u.licenseNo, u.plateNo, u.phone, u.shiftSchedule, u.active) FROM User u ";
+
+    String FILTERS = "AND (:role IS NULL OR u.role = :role) " +
+                     "AND (:active IS NULL OR u.active = :active) " +
+                     "AND (:shift IS NULL OR u.shiftSchedule LIKE CONCAT(:shift, '%')) ";
+
+    // Keyset page by id; filters may be null
+    @Query(SUMMARY + "WHERE u.id > :afterId " + FILTERS + "ORDER BY u.id")
+    List<UserSummaryDTO> findSummaryPage(@Param("afterId") Long afterId,
+                                         @Param("role") String role,
+                                         @Param("active") Boolean active,
+                                         @Param("shift") String shift,
+                                         Pageable page);
+
+    // Same filters, restricted to search hits
+    @Query(SUMMARY + "WHERE u.id IN :ids " + FILTERS + "ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids,
+                                             @Param("role") String role,
+                                             @Param("active") Boolean active,
+                                             @Param("shift") String shift,
+                                             Pageable page);
+
+    @Query(SUMMARY + "WHERE u.id = :id")
+    UserSummaryDTO findSummaryById(@Param("id") Long id);
+
+    // Everyone in an id range, e.g. the users of one bulk import
+    @Query(SUMMARY + "WHERE u.id BETWEEN :firstId AND :lastId ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesBetween(@Param("firstId") Long firstId, @Param("lastId") Long lastId);
+
+    @Query(SUMMARY + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummaryDTO> findAllSummaries(@Param("afterId") Long afterId, Pageable page);
+}
@@ -0,0 +1,79 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.model.User;
+import com.mapapppro.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the logged-in user without a users query on every request.
+ * Holds a bounded LRU of users by username; entries are dropped when the
+ * user changes, so deactivation takes effect on the very next request.
+ */
+@Component
+public class CurrentUserCache {
+
+    @Autowired private UserRepository userRepository;
+
+    private final Map<String, User> users;
+    // Bumped on every eviction, under the same lock; a load that spans one is not cached
+    private long generation;
+
+    public CurrentUserCache(@Value("${opentrack.users.cache-size:5000}") int maxEntries) {
+        this.users = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the active user behind the current request, or null if anonymous or deactivated
+     */
+    public User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName().equals("anonymousUser")) {
+            return null;
+        }
+        User user = get(auth.getName());
+        return user != null && user.isActive() ? user : null;
+    }
+
+    private User get(String username) {
+        long loadedAt;
+        synchronized (users) {
+            User cached = users.get(username);
+            if (cached != null) {
+                return cached;
+            }
+            loadedAt = generation;
+        }
+        User loaded = userRepository.findByUsername(username);
+        if (loaded != null) {
+            synchronized (users) {
+                // A change evicted while we were loading may not be in what we read
+                if (generation == loadedAt) {
+                    users.put(username, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (users) {
+            generation++;
+            users.remove(event.getUsername());
+        }
+    }
+}
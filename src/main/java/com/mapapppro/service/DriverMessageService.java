@@ -0,0 +1,109 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.FleetEvent;
+import com.mapapppro.model.DriverMessage;
+import com.mapapppro.repository.DriverMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers dispatcher messages to drivers. Long-poll requests are parked as
+ * DeferredResults, which hold neither a servlet thread nor a DB connection,
+ * and are completed as soon as a message is sent to that driver, on this
+ * node directly and on the others through the FleetEventBus.
+ */
+@Service
+public class DriverMessageService {
+
+    @Autowired private DriverMessageRepository messageRepository;
+    @Autowired private FleetEventBus fleetEventBus;
+
+    @Value("${opentrack.messages.poll-timeout-ms:25000}")
+    private long pollTimeoutMs;
+
+    private final ConcurrentHashMap<Long, Set<DeferredResult<List<DriverMessage>>>> waiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Object> driverLocks = new ConcurrentHashMap<>();
+
+    public DriverMessage send(Long driverId, String message) {
+        DriverMessage saved = messageRepository.save(new DriverMessage(driverId, message));
+        wake(driverId);
+        // The driver's poll may be parked on another node
+        fleetEventBus.publish(FleetEvent.message(driverId));
+        return saved;
+    }
+
+    /**
+     * Returns the driver's unread messages and marks them read with a single UPDATE.
+     */
+    public List<DriverMessage> takeUnread(Long driverId) {
+        // Serialised per driver so a poll and a wake-up cannot both deliver the same rows
+        synchronized (driverLocks.computeIfAbsent(driverId, id -> new Object())) {
+            List<DriverMessage> msgs = messageRepository.findByDriverIdAndIsReadFalse(driverId);
+            if (!msgs.isEmpty()) {
+                messageRepository.markRead(msgs.stream().map(DriverMessage::getId).toList());
+                msgs.forEach(m -> m.setRead(true));
+            }
+            return msgs;
+        }
+    }
+
+    /**
+     * Completes immediately if there are unread messages, otherwise when one
+     * is sent or with an empty list once the poll timeout expires.
+     */
+    public DeferredResult<List<DriverMessage>> poll(Long driverId) {
+        DeferredResult<List<DriverMessage>> result = new DeferredResult<>(pollTimeoutMs, List.of());
+        Set<DeferredResult<List<DriverMessage>>> parked = waiters.computeIfAbsent(driverId, id -> ConcurrentHashMap.newKeySet());
+        parked.add(result);
+        result.onCompletion(() -> parked.remove(result));
+
+        // Checked after registering so a message sent in between is not missed
+        deliverUnread(driverId, Set.of(result));
+        return result;
+    }
+
+    /**
+     * Hands any unread messages to the driver's parked polls.
+     */
+    public void wake(Long driverId) {
+        Set<DeferredResult<List<DriverMessage>>> parked = waiters.get(driverId);
+        if (parked == null || parked.isEmpty()) {
+            return;
+        }
+        deliverUnread(driverId, parked);
+    }
+
+    /**
+     * Completes the given polls with the driver's unread messages. The rows
+     * are marked read only if at least one poll accepted them; a poll that
+     * timed out or completed meanwhile rejects setResult, and then the
+     * messages stay unread for the next poll.
+     */
+    private void deliverUnread(Long driverId, Set<DeferredResult<List<DriverMessage>>> results) {
+        synchronized (driverLocks.computeIfAbsent(driverId, id -> new Object())) {
+            List<DriverMessage> msgs = messageRepository.findByDriverIdAndIsReadFalse(driverId);
+            if (msgs.isEmpty()) {
+                return;
+            }
+            // Flagged before handing over; the response is written on another thread
+            msgs.forEach(m -> m.setRead(true));
+            boolean delivered = false;
+            for (DeferredResult<List<DriverMessage>> result : results) {
+                delivered |= result.setResult(msgs);
+            }
+            if (delivered) {
+                messageRepository.markRead(msgs.stream().map(DriverMessage::getId).toList());
+            }
+        }
+    }
+
+    public int getWaitingCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.DriverProfileDTO;
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.event.UsersImportedEvent;
+import com.mapapppro.model.User;
+import com.mapapppro.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read cache of the driver fields shown on the live map. Misses are loaded
+ * with one findAllById per call, so a fleet snapshot costs at most one query.
+ * Entries are evicted whenever the user is created, updated or deactivated.
+ */
+@Component
+public class DriverProfileCache {
+
+    // Marks ids with no user row so they are not looked up again on every poll
+    private static final DriverProfileDTO MISSING = new DriverProfileDTO(null, null, null, null, null);
+
+    @Autowired private UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, DriverProfileDTO> profiles = new ConcurrentHashMap<>();
+    // Bumped before every eviction, so a load can tell it may have overwritten one
+    private final AtomicLong generation = new AtomicLong();
+
+    public DriverProfileDTO get(Long driverId) {
+        return getAll(List.of(driverId)).get(driverId);
+    }
+
+    /**
+     * @return profiles keyed by driver id; ids without a user are absent from the map
+     */
+    public Map<Long, DriverProfileDTO> getAll(Collection<Long> driverIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : driverIds) {
+            if (!profiles.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        Map<Long, DriverProfileDTO> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            long loadedAt = generation.get();
+            for (User user : userRepository.findAllById(missing)) {
+                loaded.put(user.getId(), DriverProfileDTO.from(user));
+            }
+            for (Long id : missing) {
+                loaded.putIfAbsent(id, MISSING);
+            }
+            profiles.putAll(loaded);
+            if (generation.get() != loadedAt) {
+                // A user changed while we were loading; what we read may predate it
+                loaded.forEach(profiles::remove);
+            }
+        }
+
+        Map<Long, DriverProfileDTO> result = new HashMap<>();
+        for (Long id : driverIds) {
+            DriverProfileDTO profile = loaded.containsKey(id) ? loaded.get(id) : profiles.get(id);
+            if (profile != null && profile != MISSING) {
+                result.put(id, profile);
+            }
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() != null) {
+            generation.incrementAndGet();
+            profiles.remove(event.getUserId());
+        }
+    }
+
+    // New drivers may have been looked up, and cached as missing, before the import
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        generation.incrementAndGet();
+        profiles.keySet().removeIf(id -> id >= event.getFirstId() && id <= event.getLastId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.FleetEvent;
+
+/**
+ * Carries FleetEvents between application instances so every node's live
+ * view converges. Selected with opentrack.bus.type: memory by default, for
+ * single-node runs and tests; jdbc when several instances share a database.
+ *
+ * Implementations deliver events from other nodes by publishing them as
+ * application events on this node, never back to the node that sent them.
+ */
+public interface FleetEventBus {
+
+    /** Shares a change made on this node with the other nodes. Must not block. */
+    void publish(FleetEvent event);
+}
@@ -0,0 +1,84 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.FleetEvent;
+import com.mapapppro.event.GeofenceChangedEvent;
+import com.mapapppro.event.LandmarkChangedEvent;
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.event.UsersImportedEvent;
+import com.mapapppro.model.TripLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connects this node's application events to the FleetEventBus: local
+ * position, user, landmark and geofence changes go out, and changes from other nodes come back
+ * in as the same events marked remote, so caches, the live registry and the
+ * fleet stream need no knowledge of other nodes.
+ */
+@Component
+public class FleetEventRelay {
+
+    @Autowired private FleetEventBus fleetEventBus;
+    @Autowired private LiveFleetRegistry liveFleetRegistry;
+    @Autowired private DriverMessageService driverMessageService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    // --- Outgoing ---
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        if (event.isLatest() && !event.isRemote()) {
+            fleetEventBus.publish(FleetEvent.position(event.getTripLog()));
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote()) {
+            fleetEventBus.publish(FleetEvent.user(event.getUserId(), event.getUsername()));
+        }
+    }
+
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        if (!event.isRemote()) {
+            fleetEventBus.publish(FleetEvent.usersImported(event.getFirstId(), event.getLastId()));
+        }
+    }
+
+    @EventListener
+    public void onLandmarkChanged(LandmarkChangedEvent event) {
+        if (!event.isRemote()) {
+            fleetEventBus.publish(FleetEvent.landmark(event.getLandmarkId()));
+        }
+    }
+
+    @EventListener
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        if (!event.isRemote()) {
+            fleetEventBus.publish(FleetEvent.geofence(event.getGeofenceId()));
+        }
+    }
+
+    // --- Incoming ---
+
+    @EventListener
+    public void onRemoteChange(FleetEvent event) {
+        switch (event.getKind()) {
+            case POSITION -> {
+                TripLog fix = event.toTripLog();
+                boolean latest = liveFleetRegistry.update(fix);
+                eventPublisher.publishEvent(new TripLogAcceptedEvent(fix, latest, true));
+            }
+            case MESSAGE -> driverMessageService.wake(event.getSubjectId());
+            case USER -> eventPublisher.publishEvent(new UserChangedEvent(event.getSubjectId(), event.getDetail(), true));
+            case USERS -> eventPublisher.publishEvent(
+                    new UsersImportedEvent(event.getSubjectId(), Long.parseLong(event.getDetail()), true));
+            case LANDMARK -> eventPublisher.publishEvent(new LandmarkChangedEvent(event.getSubjectId(), true));
+            case GEOFENCE -> eventPublisher.publishEvent(new GeofenceChangedEvent(event.getSubjectId(), true));
+        }
+    }
+}
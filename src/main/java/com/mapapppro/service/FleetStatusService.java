@@ -0,0 +1,78 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.DriverProfileDTO;
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.geo.SpatialGrid;
+import com.mapapppro.model.TripLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the dispatcher view of the fleet: live positions joined with the
+ * cached driver profiles.
+ */
+@Service
+public class FleetStatusService {
+
+    @Autowired private LiveFleetRegistry liveFleetRegistry;
+    @Autowired private DriverProfileCache driverProfileCache;
+
+    public List<Map<String, Object>> snapshot() {
+        return toEntries(liveFleetRegistry.snapshot());
+    }
+
+    public List<Map<String, Object>> snapshot(BoundingBox box, Set<String> statuses) {
+        return toEntries(liveFleetRegistry.snapshot(box, statuses));
+    }
+
+    /**
+     * The k drivers closest to a point, nearest first, each with its
+     * great-circle distanceMeters.
+     */
+    public List<Map<String, Object>> nearest(double lat, double lng, int k, Set<String> statuses) {
+        List<SpatialGrid.Neighbor<TripLog>> neighbors = liveFleetRegistry.nearest(lat, lng, k, statuses);
+        Map<Long, DriverProfileDTO> profiles = driverProfileCache.getAll(
+                neighbors.stream().map(n -> n.getValue().getDriverId()).toList());
+
+        List<Map<String, Object>> result = new ArrayList<>(neighbors.size());
+        for (SpatialGrid.Neighbor<TripLog> neighbor : neighbors) {
+            TripLog log = neighbor.getValue();
+            Map<String, Object> data = toEntry(log, profiles.get(log.getDriverId()));
+            data.put("distanceMeters", Math.round(neighbor.getDistanceMeters()));
+            result.add(data);
+        }
+        return result;
+    }
+
+    private List<Map<String, Object>> toEntries(List<TripLog> logs) {
+        Map<Long, DriverProfileDTO> profiles = driverProfileCache.getAll(
+                logs.stream().map(TripLog::getDriverId).toList());
+
+        return logs.stream()
+                .map(log -> toEntry(log, profiles.get(log.getDriverId())))
+                .toList();
+    }
+
+    public Map<String, Object> toEntry(TripLog log, DriverProfileDTO driver) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("driverId", log.getDriverId());
+        data.put("latitude", log.getLatitude());
+        data.put("longitude", log.getLongitude());
+        data.put("status", log.getStatus());
+        data.put("timestamp", log.getTimestamp());
+
+        // Add driver details
+        if (driver != null) {
+            data.put("username", driver.getUsername());
+            data.put("fullName", driver.getFullName());
+            data.put("plateNo", driver.getPlateNo());
+        }
+        return data;
+    }
+}
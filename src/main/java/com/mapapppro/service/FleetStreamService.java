@@ -0,0 +1,206 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.DriverProfileDTO;
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.model.TripLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the live fleet to dispatchers over Server-Sent Events: a full
+ * "snapshot" on subscribe, then "update" events carrying only the drivers
+ * whose position changed.
+ *
+ * Ingestion never writes to a socket. It only records the fix in each
+ * subscriber's pending map, keyed by driver, and a small sender pool drains
+ * the map. A slow client therefore only ever receives the newest state per
+ * driver and cannot hold up location updates.
+ */
+@Service
+public class FleetStreamService {
+
+    private static final int MAX_PENDING_NOTICES = 500;
+
+    @Autowired private FleetStatusService fleetStatusService;
+    @Autowired private DriverProfileCache driverProfileCache;
+
+    @Value("${opentrack.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${opentrack.stream.max-subscribers:200}")
+    private int maxSubscribers;
+
+    @Value("${opentrack.stream.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${opentrack.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadId = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "fleet-stream-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fleet-stream-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(sub -> sub.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * @return the emitter for the new subscriber, or null if the subscriber limit is reached
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscriber sub = new Subscriber(new SseEmitter(timeoutMs));
+        sub.emitter.onCompletion(() -> subscribers.remove(sub));
+        sub.emitter.onTimeout(() -> subscribers.remove(sub));
+        sub.emitter.onError(e -> subscribers.remove(sub));
+        subscribers.add(sub);
+        schedule(sub);
+        return sub.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        if (!event.isLatest() || subscribers.isEmpty()) {
+            return;
+        }
+        TripLog log = event.getTripLog();
+        for (Subscriber sub : subscribers) {
+            sub.pending.put(log.getDriverId(), log);
+            schedule(sub);
+        }
+    }
+
+    /**
+     * Queues a named event, such as a geofence transition, for every
+     * subscriber. A subscriber that falls far behind loses the oldest ones.
+     */
+    public void publish(String name, Object data) {
+        Notice notice = new Notice(name, data);
+        for (Subscriber sub : subscribers) {
+            while (!sub.notices.offer(notice)) {
+                sub.notices.poll();
+            }
+            schedule(sub);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber sub : subscribers) {
+            sub.pingPending.set(true);
+            schedule(sub);
+        }
+    }
+
+    private void schedule(Subscriber sub) {
+        if (sub.scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(sub));
+            } catch (RejectedExecutionException e) {
+                sub.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber sub) {
+        try {
+            if (sub.snapshotPending.getAndSet(false)) {
+                // Anything already pending is covered by the snapshot
+                sub.pending.clear();
+                sub.emitter.send(SseEmitter.event().name("snapshot").data(fleetStatusService.snapshot()));
+            }
+            while (!sub.pending.isEmpty()) {
+                List<TripLog> changed = new ArrayList<>();
+                for (Long driverId : sub.pending.keySet()) {
+                    TripLog log = sub.pending.remove(driverId);
+                    if (log != null) changed.add(log);
+                }
+                Map<Long, DriverProfileDTO> profiles = driverProfileCache.getAll(
+                        changed.stream().map(TripLog::getDriverId).toList());
+                List<Map<String, Object>> updates = changed.stream()
+                        .map(log -> fleetStatusService.toEntry(log, profiles.get(log.getDriverId())))
+                        .toList();
+                sub.emitter.send(SseEmitter.event().name("update").data(updates));
+            }
+            Notice notice;
+            while ((notice = sub.notices.poll()) != null) {
+                sub.emitter.send(SseEmitter.event().name(notice.name()).data(notice.data()));
+            }
+            if (sub.pingPending.getAndSet(false)) {
+                sub.emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a broken pipe
+            subscribers.remove(sub);
+            sub.pending.clear();
+            sub.notices.clear();
+            sub.emitter.completeWithError(e);
+            return;
+        } finally {
+            sub.scheduled.set(false);
+        }
+        if (!sub.pending.isEmpty() || !sub.notices.isEmpty()) {
+            schedule(sub);
+        }
+    }
+
+    private record Notice(String name, Object data) {}
+
+    private static class Subscriber {
+        final SseEmitter emitter;
+        final ConcurrentHashMap<Long, TripLog> pending = new ConcurrentHashMap<>();
+        final LinkedBlockingQueue<Notice> notices = new LinkedBlockingQueue<>(MAX_PENDING_NOTICES);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicBoolean snapshotPending = new AtomicBoolean(true);
+        final AtomicBoolean pingPending = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.GeofenceChangedEvent;
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.geo.GeofenceIndex;
+import com.mapapppro.geo.GeofenceIndex.Zone;
+import com.mapapppro.model.Geofence;
+import com.mapapppro.model.GeofenceEvent;
+import com.mapapppro.model.Landmark;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.GeofenceEventRepository;
+import com.mapapppro.repository.GeofenceRepository;
+import com.mapapppro.repository.LandmarkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates every accepted fix against the dispatcher-defined zones and
+ * emits ENTER, EXIT and DWELL events on transitions only.
+ *
+ * A fix is tested against the zones sharing its grid cell, not all zones.
+ * Membership per driver is kept in memory; after a restart drivers already
+ * inside a zone get a fresh ENTER on their next fix. Events are pushed to
+ * the fleet stream right away and written to geofence_events by a single
+ * background thread, so ingestion never waits on the database.
+ */
+@Service
+@Lazy(false) // load zones at startup rather than inside the first fix
+public class GeofenceEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(GeofenceEngine.class);
+
+    @Autowired private GeofenceRepository geofenceRepository;
+    @Autowired private GeofenceEventRepository eventRepository;
+    @Autowired private LandmarkRepository landmarkRepository;
+    @Autowired private FleetStreamService fleetStreamService;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${opentrack.geofence.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${opentrack.geofence.writer-queue:10000}")
+    private int writerQueue;
+
+    private GeofenceIndex index;
+    private final ConcurrentHashMap<Long, Geofence> geofences = new ConcurrentHashMap<>();
+    // driverId -> zoneId -> membership
+    private final ConcurrentHashMap<Long, Map<Long, Membership>> memberships = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor writer;
+
+    private Timer evaluateTimer;
+    private final Map<String, Counter> eventCounters = new HashMap<>();
+
+    private static class Membership {
+        final LocalDateTime enteredAt;
+        boolean dwellEmitted;
+
+        Membership(LocalDateTime enteredAt) {
+            this.enteredAt = enteredAt;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        evaluateTimer = Timer.builder("opentrack.geofence.evaluate")
+                .description("Geofence check for one accepted fix")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (String type : List.of("ENTER", "EXIT", "DWELL")) {
+            eventCounters.put(type, Counter.builder("opentrack.geofence.events").tag("type", type).register(meterRegistry));
+        }
+
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(writerQueue), r -> {
+            Thread t = new Thread(r, "geofence-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        index = new GeofenceIndex(cellDegrees);
+        List<Zone> zones = new ArrayList<>();
+        for (Geofence geofence : geofenceRepository.findByActiveTrue()) {
+            try {
+                zones.add(toZone(geofence.getId(), geofence));
+                geofences.put(geofence.getId(), geofence);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping geofence {}: {}", geofence.getId(), e.getMessage());
+            }
+        }
+        index.putAll(zones);
+        log.info("Loaded {} geofences", zones.size());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // --- Zone management ---
+
+    /**
+     * Resolves a landmark-based circle to the landmark's position, validates
+     * the shape, then saves and indexes the zone.
+     *
+     * @throws IllegalArgumentException if the shape is incomplete or invalid
+     */
+    public Geofence create(Geofence geofence) {
+        if (geofence.getLandmarkId() != null) {
+            Landmark landmark = landmarkRepository.findById(geofence.getLandmarkId())
+                    .orElseThrow(() -> new IllegalArgumentException("Landmark not found"));
+            geofence.setCenterLat(landmark.getLatitude());
+            geofence.setCenterLng(landmark.getLongitude());
+            if (geofence.getName() == null || geofence.getName().isBlank()) {
+                geofence.setName(landmark.getName());
+            }
+        }
+        geofence.setActive(true);
+        geofence.setCreatedAt(LocalDateTime.now());
+        toZone(0L, geofence); // validate before saving
+
+        geofenceRepository.save(geofence);
+        geofences.put(geofence.getId(), geofence);
+        index.put(toZone(geofence.getId(), geofence));
+        eventPublisher.publishEvent(new GeofenceChangedEvent(geofence.getId()));
+        return geofence;
+    }
+
+    /**
+     * @return false if no active zone has this id
+     */
+    public boolean deactivate(Long id) {
+        Geofence geofence = unload(id);
+        if (geofence == null) {
+            return false;
+        }
+        geofence.setActive(false);
+        geofenceRepository.save(geofence);
+        eventPublisher.publishEvent(new GeofenceChangedEvent(id));
+        return true;
+    }
+
+    // A zone created or deactivated on another node: reload it from the database
+    @EventListener
+    public void onGeofenceChanged(GeofenceChangedEvent event) {
+        if (!event.isRemote()) {
+            return;
+        }
+        Geofence geofence = geofenceRepository.findById(event.getGeofenceId()).orElse(null);
+        if (geofence == null || !geofence.isActive()) {
+            unload(event.getGeofenceId());
+            return;
+        }
+        try {
+            index.put(toZone(geofence.getId(), geofence));
+            geofences.put(geofence.getId(), geofence);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping geofence {}: {}", geofence.getId(), e.getMessage());
+        }
+    }
+
+    private Geofence unload(Long id) {
+        Geofence geofence = geofences.remove(id);
+        index.remove(id);
+        // Drivers inside are dropped silently; EXIT is only for real departures
+        for (Map<Long, Membership> state : memberships.values()) {
+            synchronized (state) {
+                state.remove(id);
+            }
+        }
+        return geofence;
+    }
+
+    public List<Geofence> list() {
+        return new ArrayList<>(geofences.values());
+    }
+
+    public List<GeofenceEvent> recentEvents(Long geofenceId, Long driverId, int limit) {
+        return eventRepository.findRecent(geofenceId, driverId, PageRequest.of(0, limit));
+    }
+
+    // --- Evaluation ---
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        // Late fixes from a batch upload must not move a driver in or out of zones;
+        // remote fixes are evaluated by the node that owns the driver
+        if (event.isLatest() && !event.isRemote()) {
+            long start = System.nanoTime();
+            evaluate(event.getTripLog());
+            evaluateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void evaluate(TripLog fix) {
+        List<Zone> inside = index.containing(fix.getLatitude(), fix.getLongitude());
+        Map<Long, Membership> state = memberships.get(fix.getDriverId());
+        if (inside.isEmpty() && (state == null || state.isEmpty())) {
+            return;
+        }
+        if (state == null) {
+            state = memberships.computeIfAbsent(fix.getDriverId(), k -> new HashMap<>());
+        }
+
+        List<GeofenceEvent> events = new ArrayList<>(2);
+        LocalDateTime at = fix.getTimestamp();
+        synchronized (state) {
+            Iterator<Map.Entry<Long, Membership>> it = state.entrySet().iterator();
+            while (it.hasNext()) {
+                Long zoneId = it.next().getKey();
+                if (!containsZone(inside, zoneId)) {
+                    it.remove();
+                    events.add(newEvent(zoneId, fix, "EXIT"));
+                }
+            }
+            for (Zone zone : inside) {
+                Geofence geofence = geofences.get(zone.getId());
+                if (geofence == null) continue;
+                Membership membership = state.get(zone.getId());
+                if (membership == null) {
+                    state.put(zone.getId(), new Membership(at));
+                    events.add(newEvent(zone.getId(), fix, "ENTER"));
+                } else if (!membership.dwellEmitted && geofence.getDwellSeconds() != null
+                        && Duration.between(membership.enteredAt, at).getSeconds() >= geofence.getDwellSeconds()) {
+                    membership.dwellEmitted = true;
+                    events.add(newEvent(zone.getId(), fix, "DWELL"));
+                }
+            }
+        }
+        if (!events.isEmpty()) {
+            emit(events);
+        }
+    }
+
+    private void emit(List<GeofenceEvent> events) {
+        List<Map<String, Object>> notices = new ArrayList<>(events.size());
+        for (GeofenceEvent event : events) {
+            eventCounters.get(event.getType()).increment();
+            Geofence geofence = geofences.get(event.getGeofenceId());
+            Map<String, Object> notice = new LinkedHashMap<>();
+            notice.put("geofenceId", event.getGeofenceId());
+            notice.put("geofenceName", geofence != null ? geofence.getName() : null);
+            notice.put("driverId", event.getDriverId());
+            notice.put("type", event.getType());
+            notice.put("lat", event.getLatitude());
+            notice.put("lng", event.getLongitude());
+            notice.put("timestamp", event.getTimestamp());
+            notices.add(notice);
+        }
+        fleetStreamService.publish("geofence", notices);
+
+        try {
+            writer.execute(() -> {
+                try {
+                    eventRepository.saveAll(events);
+                } catch (RuntimeException e) {
+                    log.error("Failed to save {} geofence events", events.size(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Geofence writer queue full, dropping {} events", events.size());
+        }
+    }
+
+    private static GeofenceEvent newEvent(Long zoneId, TripLog fix, String type) {
+        return new GeofenceEvent(zoneId, fix.getDriverId(), type, fix.getLatitude(), fix.getLongitude(), fix.getTimestamp());
+    }
+
+    private static boolean containsZone(List<Zone> zones, long id) {
+        for (Zone zone : zones) {
+            if (zone.getId() == id) return true;
+        }
+        return false;
+    }
+
+    // --- Shapes ---
+
+    static Zone toZone(long id, Geofence geofence) {
+        if ("CIRCLE".equals(geofence.getShape())) {
+            if (geofence.getCenterLat() == null || geofence.getCenterLng() == null || geofence.getRadiusMeters() == null) {
+                throw new IllegalArgumentException("Circle needs a landmark or lat/lng, and radiusMeters");
+            }
+            return Zone.circle(id, geofence.getCenterLat(), geofence.getCenterLng(), geofence.getRadiusMeters());
+        }
+        if ("POLYGON".equals(geofence.getShape())) {
+            if (geofence.getPolygon() == null || geofence.getPolygon().isBlank()) {
+                throw new IllegalArgumentException("Polygon needs points");
+            }
+            String[] points = geofence.getPolygon().split(";");
+            double[] lats = new double[points.length];
+            double[] lngs = new double[points.length];
+            for (int i = 0; i < points.length; i++) {
+                String[] latLng = points[i].split(",");
+                if (latLng.length != 2) {
+                    throw new IllegalArgumentException("Polygon points must be lat,lng");
+                }
+                lats[i] = Double.parseDouble(latLng[0].trim());
+                lngs[i] = Double.parseDouble(latLng[1].trim());
+            }
+            return Zone.polygon(id, lats, lngs);
+        }
+        throw new IllegalArgumentException("Shape must be CIRCLE or POLYGON");
+    }
+}
@@ -0,0 +1,48 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.FleetEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Bus between application contexts in the same JVM: each context using it
+ * is one node, so a test can start two contexts and watch them converge.
+ * Events are delivered synchronously on the publishing thread. This is the
+ * default: a single instance has no other node, so publishing is free.
+ */
+@Component
+@Lazy(false) // a node only receives once it has joined
+@ConditionalOnProperty(name = "opentrack.bus.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryFleetEventBus implements FleetEventBus {
+
+    private static final Set<InMemoryFleetEventBus> NODES = new CopyOnWriteArraySet<>();
+
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void join() {
+        NODES.add(this);
+    }
+
+    @PreDestroy
+    void leave() {
+        NODES.remove(this);
+    }
+
+    @Override
+    public void publish(FleetEvent event) {
+        for (InMemoryFleetEventBus node : NODES) {
+            if (node != this) {
+                node.eventPublisher.publishEvent(event);
+            }
+        }
+    }
+}
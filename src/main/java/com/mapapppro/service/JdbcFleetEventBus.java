@@ -0,0 +1,250 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.FleetEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node bus over the fleet_changes table in the application database,
+ * so running several instances needs no extra infrastructure.
+ *
+ * One background thread per node writes the node's pending events in a
+ * single batch and then reads rows added since its cursor. Positions are
+ * coalesced per driver before writing, so a node sends at most one row per
+ * driver per poll interval. A node's live view is therefore at most about
+ * two poll intervals behind the others.
+ *
+ * Ids come from AUTO_INCREMENT, and a row can commit after a higher id that
+ * another node wrote. Ids skipped by the cursor are re-checked until
+ * gap-timeout-ms has passed. Rows older than retention-minutes are deleted.
+ */
+@Component
+@Lazy(false) // must tail the feed from startup, not from the first local event
+@ConditionalOnProperty(name = "opentrack.bus.type", havingValue = "jdbc")
+public class JdbcFleetEventBus implements FleetEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcFleetEventBus.class);
+
+    // Same shape as the FleetChange mapping, for when Hibernate does not manage the schema (ddl-auto=none)
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS fleet_changes ("
+            + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+            + "node_id VARCHAR(36) NOT NULL, "
+            + "kind VARCHAR(16) NOT NULL, "
+            + "subject_id BIGINT NOT NULL, "
+            + "latitude DOUBLE, "
+            + "longitude DOUBLE, "
+            + "status VARCHAR(50), "
+            + "event_time DATETIME(6), "
+            + "detail VARCHAR(255), "
+            + "created_at DATETIME(6) NOT NULL, "
+            + "INDEX idx_fleet_changes_created_at (created_at))";
+    private static final String INSERT = "INSERT INTO fleet_changes "
+            + "(node_id, kind, subject_id, latitude, longitude, status, event_time, detail, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT id, node_id, kind, subject_id, latitude, longitude, status, "
+            + "event_time, detail FROM fleet_changes";
+    // Gaps beyond this many are given up on at once
+    private static final int MAX_GAPS = 1000;
+    private static final long CLEANUP_INTERVAL_MS = 60_000;
+    private static final int CLEANUP_CHUNK = 10_000;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    // Ensures Hibernate has created or updated the schema before we run
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Value("${opentrack.bus.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${opentrack.bus.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${opentrack.bus.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Value("${opentrack.bus.retention-minutes:10}")
+    private long retentionMinutes;
+
+    @Value("${opentrack.bus.outbox-capacity:10000}")
+    private int outboxCapacity;
+
+    private record Change(long id, String nodeId, FleetEvent event) {}
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // Newest position per driver; older ones are superseded before they are written
+    private final ConcurrentHashMap<Long, FleetEvent> pendingPositions = new ConcurrentHashMap<>();
+    private BlockingQueue<FleetEvent> pendingOther;
+
+    // Only touched by the worker thread
+    private long cursor;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>(); // id -> first missed at
+    private long lastCleanup;
+
+    private ScheduledExecutorService worker;
+
+    @PostConstruct
+    void start() {
+        pendingOther = new ArrayBlockingQueue<>(outboxCapacity);
+        jdbcTemplate.execute(CREATE_TABLE);
+        // Start from the tail; the live view is warmed from trip_logs, not the feed
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM fleet_changes", Long.class);
+        cursor = max != null ? max : 0;
+        lastCleanup = System.currentTimeMillis();
+
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fleet-bus");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.scheduleWithFixedDelay(this::tick, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Fleet event bus joined as node {} at change {}", nodeId, cursor);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+        // Hand the last changes to the other nodes
+        write();
+    }
+
+    @Override
+    public void publish(FleetEvent event) {
+        if (event.getKind() == FleetEvent.Kind.POSITION) {
+            pendingPositions.put(event.getSubjectId(), event);
+        } else if (!pendingOther.offer(event)) {
+            log.warn("Fleet bus outbox full, dropping {} event for {}", event.getKind(), event.getSubjectId());
+        }
+    }
+
+    private void tick() {
+        try {
+            write();
+            read();
+            if (System.currentTimeMillis() - lastCleanup >= CLEANUP_INTERVAL_MS) {
+                lastCleanup = System.currentTimeMillis();
+                cleanup();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Fleet bus poll failed: {}", e.getMessage());
+        }
+    }
+
+    // --- Outgoing ---
+
+    private void write() {
+        List<FleetEvent> batch = new ArrayList<>();
+        pendingOther.drainTo(batch);
+        for (Long driverId : pendingPositions.keySet()) {
+            FleetEvent event = pendingPositions.remove(driverId);
+            if (event != null) batch.add(event);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batchSize, (ps, event) -> {
+                ps.setString(1, nodeId);
+                ps.setString(2, event.getKind().name());
+                ps.setLong(3, event.getSubjectId());
+                ps.setObject(4, event.getLatitude(), Types.DOUBLE);
+                ps.setObject(5, event.getLongitude(), Types.DOUBLE);
+                ps.setString(6, event.getStatus());
+                ps.setObject(7, event.getEventTime() != null ? Timestamp.valueOf(event.getEventTime()) : null, Types.TIMESTAMP);
+                ps.setString(8, event.getDetail());
+                ps.setTimestamp(9, now);
+            });
+        } catch (RuntimeException e) {
+            // Positions are resent with the driver's next fix; other events are lost
+            log.warn("Failed to write {} fleet changes: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // --- Incoming ---
+
+    private void read() {
+        if (!gaps.isEmpty()) {
+            String ids = String.join(",", Collections.nCopies(gaps.size(), "?"));
+            for (Change change : jdbcTemplate.query(SELECT + " WHERE id IN (" + ids + ")", ROW, gaps.keySet().toArray())) {
+                gaps.remove(change.id());
+                deliver(change);
+            }
+            long expired = System.currentTimeMillis() - gapTimeoutMs;
+            gaps.values().removeIf(missedAt -> missedAt < expired);
+        }
+
+        List<Change> changes;
+        do {
+            changes = jdbcTemplate.query(SELECT + " WHERE id > ? ORDER BY id LIMIT ?", ROW, cursor, batchSize);
+            long now = System.currentTimeMillis();
+            for (Change change : changes) {
+                for (long missing = cursor + 1; missing < change.id() && gaps.size() < MAX_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                cursor = change.id();
+                deliver(change);
+            }
+        } while (changes.size() == batchSize);
+    }
+
+    private void deliver(Change change) {
+        if (nodeId.equals(change.nodeId())) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(change.event());
+        } catch (RuntimeException e) {
+            log.error("Failed to apply {} change {}", change.event().getKind(), change.id(), e);
+        }
+    }
+
+    private void cleanup() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes));
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM fleet_changes WHERE created_at < ? LIMIT " + CLEANUP_CHUNK, cutoff);
+        } while (deleted == CLEANUP_CHUNK);
+    }
+
+    private static final RowMapper<Change> ROW = (rs, rowNum) -> {
+        Timestamp eventTime = rs.getTimestamp("event_time");
+        FleetEvent event = new FleetEvent(
+                FleetEvent.Kind.valueOf(rs.getString("kind")),
+                rs.getLong("subject_id"),
+                rs.getObject("latitude", Double.class),
+                rs.getObject("longitude", Double.class),
+                rs.getString("status"),
+                eventTime != null ? eventTime.toLocalDateTime() : null,
+                rs.getString("detail"));
+        return new Change(rs.getLong("id"), rs.getString("node_id"), event);
+    };
+}
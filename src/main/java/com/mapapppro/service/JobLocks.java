@@ -0,0 +1,64 @@
+package com.mapapppro.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Named leases in the job_locks table, so that a scheduled job runs on one
+ * node at a time when several instances share the database.
+ *
+ * A lease is held until it is released or expires. The expiry covers a node
+ * that dies mid-run, so it should comfortably exceed the longest run.
+ */
+@Component
+public class JobLocks {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS job_locks ("
+            + "name VARCHAR(64) NOT NULL PRIMARY KEY, "
+            + "locked_by VARCHAR(36) NOT NULL, "
+            + "locked_until DATETIME(6) NOT NULL)";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void start() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    /**
+     * @return true if this node now holds the lease, false if another node does
+     */
+    public boolean tryLock(String name, Duration lease) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp until = Timestamp.valueOf(LocalDateTime.now().plus(lease));
+        // A single UPDATE, so two nodes can never both take an expired lease
+        int taken = jdbcTemplate.update(
+                "UPDATE job_locks SET locked_by = ?, locked_until = ? WHERE name = ? AND locked_until < ?",
+                nodeId, until, name, now);
+        if (taken == 1) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO job_locks (name, locked_by, locked_until) VALUES (?, ?, ?)",
+                    name, nodeId, until);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // Held by another node, or it created the row first
+        }
+    }
+
+    public void unlock(String name) {
+        jdbcTemplate.update("UPDATE job_locks SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                Timestamp.valueOf(LocalDateTime.now()), name, nodeId);
+    }
+}
@@ -0,0 +1,253 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.DriverProfileDTO;
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.geo.GeoUtils;
+import com.mapapppro.model.DriverShiftKpi;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.DriverShiftKpiRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Odometer-style totals per driver per shift, updated incrementally as fixes
+ * are accepted: haversine distance from the previous fix, and the time since
+ * it credited to that fix's status (MOVING, IDLE or STOPPED).
+ *
+ * Increments accumulate in memory and are added to driver_shift_kpis once a
+ * minute, so a restart loses at most one interval. Gaps longer than
+ * max-gap-seconds (driver offline) count neither time nor distance.
+ *
+ * The shift comes from User.shiftSchedule; the shift date rolls over at
+ * day-start-hour so an overnight PM shift stays on one row.
+ */
+@Component
+@Lazy(false) // @Scheduled methods are only registered on beans that get created
+public class KpiAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(KpiAggregator.class);
+
+    @Autowired private DriverShiftKpiRepository kpiRepository;
+    @Autowired private DriverProfileCache driverProfileCache;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${opentrack.kpi.max-gap-seconds:300}")
+    private long maxGapSeconds;
+
+    @Value("${opentrack.kpi.day-start-hour:4}")
+    private int dayStartHour;
+
+    private record KpiKey(Long driverId, LocalDate shiftDate, String shift) {}
+
+    private static class Totals {
+        double distanceMeters;
+        long movingSeconds;
+        long idleSeconds;
+        long stoppedSeconds;
+        long points;
+
+        void add(Totals other) {
+            distanceMeters += other.distanceMeters;
+            movingSeconds += other.movingSeconds;
+            idleSeconds += other.idleSeconds;
+            stoppedSeconds += other.stoppedSeconds;
+            points += other.points;
+        }
+    }
+
+    private static class DriverState {
+        TripLog last;
+        KpiKey lastKey;
+        Map<KpiKey, Totals> pending = new HashMap<>();
+    }
+
+    private final ConcurrentHashMap<Long, DriverState> drivers = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        // Only fixes that became the current position arrive in time order;
+        // remote fixes are counted by the node that owns the driver
+        if (event.isLatest() && !event.isRemote()) {
+            accept(event.getTripLog());
+        }
+    }
+
+    private void accept(TripLog fix) {
+        KpiKey key = keyFor(fix.getDriverId(), fix.getTimestamp());
+        DriverState state = drivers.computeIfAbsent(fix.getDriverId(), id -> new DriverState());
+        synchronized (state) {
+            Totals totals = state.pending.computeIfAbsent(key, k -> new Totals());
+            totals.points++;
+            TripLog previous = state.last;
+            if (previous != null && key.equals(state.lastKey)) {
+                long seconds = Duration.between(previous.getTimestamp(), fix.getTimestamp()).getSeconds();
+                if (seconds > 0 && seconds <= maxGapSeconds) {
+                    totals.distanceMeters += GeoUtils.haversineMeters(
+                            previous.getLatitude(), previous.getLongitude(), fix.getLatitude(), fix.getLongitude());
+                    if ("IDLE".equals(previous.getStatus())) {
+                        totals.idleSeconds += seconds;
+                    } else if ("STOPPED".equals(previous.getStatus())) {
+                        totals.stoppedSeconds += seconds;
+                    } else {
+                        totals.movingSeconds += seconds;
+                    }
+                }
+            }
+            state.last = fix;
+            state.lastKey = key;
+        }
+    }
+
+    // --- Persistence ---
+
+    @Scheduled(initialDelayString = "${opentrack.kpi.flush-interval-ms:60000}",
+               fixedDelayString = "${opentrack.kpi.flush-interval-ms:60000}")
+    public void flush() {
+        Map<KpiKey, Totals> batch = new HashMap<>();
+        for (DriverState state : drivers.values()) {
+            synchronized (state) {
+                if (!state.pending.isEmpty()) {
+                    batch.putAll(state.pending);
+                    state.pending = new HashMap<>();
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to save {} shift KPI rows, retrying next flush: {}", batch.size(), e.getMessage());
+            requeue(batch);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+    }
+
+    private void write(Map<KpiKey, Totals> batch) {
+        Set<Long> driverIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (KpiKey key : batch.keySet()) {
+            driverIds.add(key.driverId());
+            dates.add(key.shiftDate());
+        }
+        Map<KpiKey, DriverShiftKpi> rows = new HashMap<>();
+        for (DriverShiftKpi row : kpiRepository.findByDriverIdInAndShiftDateIn(driverIds, dates)) {
+            rows.put(new KpiKey(row.getDriverId(), row.getShiftDate(), row.getShift()), row);
+        }
+        for (Map.Entry<KpiKey, Totals> entry : batch.entrySet()) {
+            KpiKey key = entry.getKey();
+            Totals t = entry.getValue();
+            rows.computeIfAbsent(key, k -> new DriverShiftKpi(k.driverId(), k.shiftDate(), k.shift()))
+                .add(t.distanceMeters, t.movingSeconds, t.idleSeconds, t.stoppedSeconds, t.points);
+        }
+        kpiRepository.saveAll(rows.values());
+    }
+
+    private void requeue(Map<KpiKey, Totals> batch) {
+        for (Map.Entry<KpiKey, Totals> entry : batch.entrySet()) {
+            DriverState state = drivers.computeIfAbsent(entry.getKey().driverId(), id -> new DriverState());
+            synchronized (state) {
+                state.pending.computeIfAbsent(entry.getKey(), k -> new Totals()).add(entry.getValue());
+            }
+        }
+    }
+
+    // --- Reads ---
+
+    /**
+     * KPIs for every driver with activity on the given shift date: one
+     * indexed query for the saved rows plus the increments not yet flushed.
+     *
+     * @param shift "AM" or "PM"; null for both
+     */
+    public List<Map<String, Object>> kpis(LocalDate shiftDate, String shift) {
+        Map<KpiKey, DriverShiftKpi> rows = new HashMap<>();
+        for (DriverShiftKpi row : kpiRepository.findByShiftDate(shiftDate)) {
+            rows.put(new KpiKey(row.getDriverId(), row.getShiftDate(), row.getShift()), row);
+        }
+        for (DriverState state : drivers.values()) {
+            synchronized (state) {
+                for (Map.Entry<KpiKey, Totals> entry : state.pending.entrySet()) {
+                    KpiKey key = entry.getKey();
+                    if (!key.shiftDate().equals(shiftDate)) continue;
+                    DriverShiftKpi saved = rows.get(key);
+                    DriverShiftKpi merged = new DriverShiftKpi(key.driverId(), key.shiftDate(), key.shift());
+                    if (saved != null) {
+                        merged.add(saved.getDistanceMeters(), saved.getMovingSeconds(), saved.getIdleSeconds(),
+                                saved.getStoppedSeconds(), saved.getPointCount());
+                    }
+                    Totals t = entry.getValue();
+                    merged.add(t.distanceMeters, t.movingSeconds, t.idleSeconds, t.stoppedSeconds, t.points);
+                    rows.put(key, merged);
+                }
+            }
+        }
+
+        List<DriverShiftKpi> selected = rows.values().stream()
+                .filter(k -> shift == null || shift.equals(k.getShift()))
+                .sorted(Comparator.comparing(DriverShiftKpi::getDriverId).thenComparing(DriverShiftKpi::getShift))
+                .toList();
+        Map<Long, DriverProfileDTO> profiles = driverProfileCache.getAll(
+                selected.stream().map(DriverShiftKpi::getDriverId).distinct().toList());
+
+        List<Map<String, Object>> result = new ArrayList<>(selected.size());
+        for (DriverShiftKpi kpi : selected) {
+            DriverProfileDTO driver = profiles.get(kpi.getDriverId());
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("driverId", kpi.getDriverId());
+            data.put("fullName", driver != null ? driver.getFullName() : null);
+            data.put("plateNo", driver != null ? driver.getPlateNo() : null);
+            data.put("shiftDate", kpi.getShiftDate());
+            data.put("shift", kpi.getShift());
+            data.put("distanceKm", Math.round(kpi.getDistanceMeters()) / 1000.0);
+            data.put("movingSeconds", kpi.getMovingSeconds());
+            data.put("idleSeconds", kpi.getIdleSeconds());
+            data.put("stoppedSeconds", kpi.getStoppedSeconds());
+            data.put("averageSpeedKmh", Math.round(kpi.getAverageSpeedKmh() * 10) / 10.0);
+            data.put("points", kpi.getPointCount());
+            result.add(data);
+        }
+        return result;
+    }
+
+    /** Shift date for a moment, honouring the configured day start. */
+    public LocalDate shiftDateOf(LocalDateTime timestamp) {
+        return timestamp.minusHours(dayStartHour).toLocalDate();
+    }
+
+    private KpiKey keyFor(Long driverId, LocalDateTime timestamp) {
+        DriverProfileDTO driver = driverProfileCache.get(driverId);
+        String schedule = driver != null ? driver.getShiftSchedule() : null;
+        String shift = schedule == null ? "UNASSIGNED"
+                : schedule.startsWith("AM") ? "AM"
+                : schedule.startsWith("PM") ? "PM"
+                : "UNASSIGNED";
+        return new KpiKey(driverId, shiftDateOf(timestamp), shift);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.LandmarkChangedEvent;
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.geo.SpatialGrid;
+import com.mapapppro.model.Landmark;
+import com.mapapppro.repository.LandmarkRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-memory grid index of all landmarks, loaded once at startup and updated
+ * as landmarks are created, here or on another node, so viewport and radius
+ * queries never hit MySQL.
+ */
+@Component
+public class LandmarkIndex {
+
+    @Autowired private LandmarkRepository landmarkRepository;
+
+    private final SpatialGrid<Long, Landmark> grid;
+
+    public LandmarkIndex(@Value("${opentrack.landmarks.cell-degrees:0.01}") double cellDegrees) {
+        this.grid = new SpatialGrid<>(cellDegrees);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        landmarkRepository.findAll().forEach(this::add);
+    }
+
+    public void add(Landmark landmark) {
+        if (landmark.getId() == null || landmark.getLatitude() == null || landmark.getLongitude() == null) {
+            return;
+        }
+        grid.put(landmark.getId(), landmark.getLatitude(), landmark.getLongitude(), landmark);
+    }
+
+    // Landmarks created on this node were added by the caller
+    @EventListener
+    public void onLandmarkChanged(LandmarkChangedEvent event) {
+        if (event.isRemote()) {
+            landmarkRepository.findById(event.getLandmarkId()).ifPresent(this::add);
+        }
+    }
+
+    public Landmark get(Long id) {
+        return grid.get(id);
+    }
+
+    public List<Landmark> all(Set<String> types) {
+        return grid.values().stream().filter(ofTypes(types)).toList();
+    }
+
+    public List<Landmark> within(BoundingBox box, Set<String> types) {
+        return grid.within(box, ofTypes(types));
+    }
+
+    public List<Landmark> withinRadius(double lat, double lng, double radiusMeters, Set<String> types) {
+        return grid.withinRadius(lat, lng, radiusMeters, ofTypes(types));
+    }
+
+    private static Predicate<Landmark> ofTypes(Set<String> types) {
+        if (types == null || types.isEmpty()) {
+            return landmark -> true;
+        }
+        return landmark -> landmark.getType() != null && types.contains(landmark.getType().toUpperCase());
+    }
+}
@@ -0,0 +1,107 @@
+package com.mapapppro.service;
+
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.geo.SpatialGrid;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.TripLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Latest known position of every driver, kept in memory so the live map
+ * never has to run the "latest location per driver" query against trip_logs.
+ * Warmed once from the database at startup, then fed by every accepted fix.
+ * Positions are held in a spatial grid so viewport queries only touch the
+ * cells on screen.
+ */
+@Component
+@Lazy(false) // warm before the first fix arrives so newest-wins holds from the start
+public class LiveFleetRegistry {
+
+    @Autowired private TripLogRepository tripLogRepository;
+
+    private final SpatialGrid<Long, TripLog> grid;
+
+    public LiveFleetRegistry(@Value("${opentrack.fleet.cell-degrees:0.01}") double cellDegrees) {
+        this.grid = new SpatialGrid<>(cellDegrees);
+    }
+
+    @PostConstruct
+    void warmUp() {
+        for (TripLog log : tripLogRepository.findLatestLocations()) {
+            update(log);
+        }
+    }
+
+    /**
+     * Records a fix for its driver. Fixes older than the one already held are ignored.
+     *
+     * @return true if the fix became the driver's latest position
+     */
+    public boolean update(TripLog log) {
+        synchronized (grid) {
+            TripLog current = grid.get(log.getDriverId());
+            if (current != null && isOlder(log, current)) {
+                return false;
+            }
+            grid.put(log.getDriverId(), log.getLatitude(), log.getLongitude(), log);
+            return true;
+        }
+    }
+
+    public TripLog get(Long driverId) {
+        return grid.get(driverId);
+    }
+
+    public List<TripLog> snapshot() {
+        return grid.values();
+    }
+
+    /**
+     * @param box      viewport to restrict to, or null for the whole fleet
+     * @param statuses statuses to keep, or empty for all
+     */
+    public List<TripLog> snapshot(BoundingBox box, Set<String> statuses) {
+        Predicate<TripLog> filter = ofStatuses(statuses);
+        if (box == null) {
+            return grid.values().stream().filter(filter).toList();
+        }
+        return grid.within(box, filter);
+    }
+
+    /**
+     * @param statuses statuses to keep, or empty for every driver not STOPPED
+     * @return up to k drivers by great-circle distance, nearest first
+     */
+    public List<SpatialGrid.Neighbor<TripLog>> nearest(double lat, double lng, int k, Set<String> statuses) {
+        Predicate<TripLog> filter = statuses == null || statuses.isEmpty()
+                ? log -> !"STOPPED".equalsIgnoreCase(log.getStatus())
+                : ofStatuses(statuses);
+        return grid.nearest(lat, lng, k, filter);
+    }
+
+    public int size() {
+        return grid.size();
+    }
+
+    private static Predicate<TripLog> ofStatuses(Set<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return log -> true;
+        }
+        return log -> log.getStatus() != null && statuses.contains(log.getStatus().toUpperCase());
+    }
+
+    private static boolean isOlder(TripLog candidate, TripLog current) {
+        if (candidate.getTimestamp() == null || current.getTimestamp() == null) {
+            return false;
+        }
+        return candidate.getTimestamp().isBefore(current.getTimestamp());
+    }
+}
@@ -0,0 +1,83 @@
+package com.mapapppro.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.model.Poi;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fetches POI nodes for a tile from the Overpass API, the same query map.js
+ * used to send from every browser.
+ */
+@Component
+@ConditionalOnProperty(name = "opentrack.poi.fetcher", havingValue = "overpass", matchIfMissing = true)
+public class OverpassPoiFetcher implements PoiFetcher {
+
+    private static final Map<String, String> TAGS = Map.of(
+            "GAS", "\"amenity\"=\"fuel\"",
+            "REPAIR", "\"shop\"=\"car_repair\"");
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${opentrack.poi.overpass-url:https://overpass-api.de/api/interpreter}")
+    private String overpassUrl;
+
+    @Value("${opentrack.poi.fetch-timeout-ms:30000}")
+    private long timeoutMs;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Override
+    public List<Poi> fetch(String type, BoundingBox box) throws IOException {
+        String tag = TAGS.get(type);
+        if (tag == null) {
+            throw new IllegalArgumentException("Unsupported POI type: " + type);
+        }
+        String query = String.format(Locale.ROOT, "[out:json][timeout:25];node[%s](%.6f,%.6f,%.6f,%.6f);out;",
+                tag, box.getMinLat(), box.getMinLng(), box.getMaxLat(), box.getMaxLng());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(overpassUrl))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("data=" + URLEncoder.encode(query, StandardCharsets.UTF_8)))
+                .build();
+
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching POIs", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Overpass returned HTTP " + response.statusCode());
+        }
+
+        List<Poi> pois = new ArrayList<>();
+        for (JsonNode element : objectMapper.readTree(response.body()).path("elements")) {
+            if (!element.has("lat") || !element.has("lon")) continue;
+            String name = element.path("tags").path("name").asText(null);
+            pois.add(new Poi(element.path("id").asLong(), name, type,
+                    element.path("lat").asDouble(), element.path("lon").asDouble()));
+        }
+        return pois;
+    }
+}
@@ -0,0 +1,17 @@
+package com.mapapppro.service;
+
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.model.Poi;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Upstream source of POIs for one tile. Selected with opentrack.poi.fetcher
+ * (overpass by default, stub for offline development).
+ */
+public interface PoiFetcher {
+
+    /** Supported POI types: "GAS", "REPAIR". */
+    List<Poi> fetch(String type, BoundingBox box) throws IOException;
+}
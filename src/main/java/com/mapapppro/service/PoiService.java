@@ -0,0 +1,240 @@
+package com.mapapppro.service;
+
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.geo.GeoUtils;
+import com.mapapppro.model.Poi;
+import com.mapapppro.model.PoiTile;
+import com.mapapppro.repository.PoiRepository;
+import com.mapapppro.repository.PoiTileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Server-side POI lookup in front of the upstream fetcher.
+ *
+ * POIs are cached per fixed lat/lng tile and type: first in a bounded LRU in
+ * memory, then in the pois table, and only then fetched upstream. A tile is
+ * refetched once it is older than the TTL; if that fetch fails the stale copy
+ * is served and retried a few minutes later. Concurrent requests for the same
+ * tile wait on a single upstream fetch.
+ */
+@Component
+public class PoiService {
+
+    private static final Logger log = LoggerFactory.getLogger(PoiService.class);
+
+    public static final Set<String> TYPES = Set.of("GAS", "REPAIR");
+
+    // How long a stale tile is served before upstream is tried again after a failure
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofMinutes(5);
+
+    @Autowired private PoiFetcher poiFetcher;
+    @Autowired private PoiRepository poiRepository;
+    @Autowired private PoiTileRepository poiTileRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Value("${opentrack.poi.tile-degrees:0.05}")
+    private double tileDegrees;
+
+    @Value("${opentrack.poi.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${opentrack.poi.max-radius-meters:10000}")
+    private double maxRadiusMeters;
+
+    @Value("${opentrack.poi.fetch-timeout-ms:30000}")
+    private long fetchTimeoutMs;
+
+    private record CachedTile(List<Poi> pois, LocalDateTime fetchedAt) {}
+
+    private final Map<String, CachedTile> tiles;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedTile>> inFlight = new ConcurrentHashMap<>();
+
+    public PoiService(@Value("${opentrack.poi.cache-tiles:2000}") int maxTiles) {
+        this.tiles = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTile> eldest) {
+                return size() > maxTiles;
+            }
+        };
+    }
+
+    /**
+     * @return POIs of the given type within the radius, nearest first
+     * @throws IllegalArgumentException for an unknown type or a bad radius
+     * @throws IOException if a tile is neither cached nor fetchable
+     */
+    public List<Poi> nearby(String type, double lat, double lng, double radiusMeters) throws IOException {
+        if (!TYPES.contains(type)) {
+            throw new IllegalArgumentException("Type must be one of " + TYPES);
+        }
+        if (radiusMeters <= 0 || radiusMeters > maxRadiusMeters) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + (long) maxRadiusMeters + " meters");
+        }
+
+        BoundingBox box = BoundingBox.around(lat, lng, radiusMeters);
+        List<Poi> result = new ArrayList<>();
+        for (int row = row(box.getMinLat()); row <= row(box.getMaxLat()); row++) {
+            for (int col = col(box.getMinLng()); col <= col(box.getMaxLng()); col++) {
+                for (Poi poi : tile(type, row, col).pois()) {
+                    if (GeoUtils.haversineMeters(lat, lng, poi.getLatitude(), poi.getLongitude()) <= radiusMeters) {
+                        result.add(poi);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(p -> GeoUtils.haversineMeters(lat, lng, p.getLatitude(), p.getLongitude())));
+        return result;
+    }
+
+    // --- Tile cache ---
+
+    private CachedTile tile(String type, int row, int col) throws IOException {
+        String key = type + ":" + row + ":" + col;
+        CachedTile cached;
+        synchronized (tiles) {
+            cached = tiles.get(key);
+        }
+        if (cached != null && isFresh(cached.fetchedAt())) {
+            return cached;
+        }
+
+        CompletableFuture<CachedTile> mine = new CompletableFuture<>();
+        CompletableFuture<CachedTile> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // Another caller may have finished loading between the lookup and putIfAbsent
+            synchronized (tiles) {
+                cached = tiles.get(key);
+            }
+            if (cached != null && isFresh(cached.fetchedAt())) {
+                mine.complete(cached);
+                return cached;
+            }
+            CachedTile loaded = load(key, type, row, col, cached);
+            synchronized (tiles) {
+                tiles.put(key, loaded);
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private CachedTile load(String key, String type, int row, int col, CachedTile stale) throws IOException {
+        if (stale == null) {
+            PoiTile stored = poiTileRepository.findById(key).orElse(null);
+            if (stored != null) {
+                stale = new CachedTile(List.copyOf(poiRepository.findByTileKey(key)), stored.getFetchedAt());
+                if (isFresh(stale.fetchedAt())) {
+                    return stale;
+                }
+            }
+        }
+
+        BoundingBox box = new BoundingBox(row * tileDegrees, col * tileDegrees,
+                (row + 1) * tileDegrees, (col + 1) * tileDegrees);
+        List<Poi> fetched;
+        try {
+            fetched = poiFetcher.fetch(type, box);
+        } catch (IOException e) {
+            if (stale == null) {
+                throw e;
+            }
+            log.warn("POI fetch for tile {} failed, serving stale copy: {}", key, e.getMessage());
+            LocalDateTime retryAt = LocalDateTime.now().minusHours(ttlHours).plus(RETRY_AFTER_FAILURE);
+            return new CachedTile(stale.pois(), retryAt);
+        }
+        return store(key, type, fetched);
+    }
+
+    /**
+     * Replaces the tile's rows. Upstream boxes are inclusive, so POIs on a
+     * tile edge are kept only by the tile that owns their coordinates. A POI
+     * that moved here from another tile takes its row over.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    private CachedTile store(String key, String type, List<Poi> fetched) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> seen = new HashSet<>();
+        List<Poi> owned = new ArrayList<>();
+        for (Poi poi : fetched) {
+            String owner = poi.getType() + ":" + row(poi.getLatitude()) + ":" + col(poi.getLongitude());
+            if (owner.equals(key) && seen.add(poi.getOsmId())) {
+                poi.setTileKey(key);
+                poi.setFetchedAt(now);
+                owned.add(poi);
+            }
+        }
+        List<Poi> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                poiRepository.deleteByTileKey(key);
+                if (!seen.isEmpty()) {
+                    poiRepository.deleteByTypeAndOsmIdIn(type, seen);
+                }
+                poiTileRepository.save(new PoiTile(key, now, owned.size()));
+                return poiRepository.saveAll(owned);
+            });
+        } catch (DataAccessException e) {
+            // E.g. a concurrent refresh of a neighbouring tile took the same key
+            throw new IOException("Failed to store POI tile " + key, e);
+        }
+        return new CachedTile(List.copyOf(saved), now);
+    }
+
+    private CachedTile await(CompletableFuture<CachedTile> future) throws IOException {
+        try {
+            return future.get(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for POI fetch", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for POI fetch", e);
+        }
+    }
+
+    private boolean isFresh(LocalDateTime fetchedAt) {
+        return fetchedAt.isAfter(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / tileDegrees);
+    }
+
+    private int col(double lng) {
+        return (int) Math.floor(lng / tileDegrees);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.LandmarkChangedEvent;
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.event.UsersImportedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version counters for the polled read endpoints, used as strong
+ * ETags so unchanged polls are answered with 304 before any query runs.
+ *
+ * Counters live in memory and restart at zero, so every tag also carries an
+ * epoch unique to this process; a tag from before a restart never matches.
+ */
+@Component
+public class ResourceVersions {
+
+    public enum Resource { FLEET, LANDMARKS, USERS }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    public ResourceVersions() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    public long bump(Resource resource) {
+        return versions.get(resource).incrementAndGet();
+    }
+
+    public long current(Resource resource) {
+        return versions.get(resource).get();
+    }
+
+    /**
+     * @param variant request parameters that change the body (filters); null values are fine
+     * @return a quoted strong ETag
+     */
+    public String etag(Resource resource, Object... variant) {
+        return "\"" + resource.name().toLowerCase() + "-" + epoch + "-" + current(resource)
+                + "-" + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        if (event.isLatest()) {
+            bump(Resource.FLEET);
+        }
+    }
+
+    // Fleet entries embed driver names and plates, so user edits change them too
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        bump(Resource.USERS);
+        bump(Resource.FLEET);
+    }
+
+    @EventListener
+    public void onLandmarkChanged(LandmarkChangedEvent event) {
+        bump(Resource.LANDMARKS);
+    }
+
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        bump(Resource.USERS);
+        bump(Resource.FLEET);
+    }
+}
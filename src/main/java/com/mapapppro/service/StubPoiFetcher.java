@@ -0,0 +1,35 @@
+package com.mapapppro.service;
+
+import com.mapapppro.geo.BoundingBox;
+import com.mapapppro.model.Poi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Offline stand-in for Overpass: a few synthetic POIs per tile, the same ones
+ * every time for the same tile and type.
+ */
+@Component
+@ConditionalOnProperty(name = "opentrack.poi.fetcher", havingValue = "stub")
+public class StubPoiFetcher implements PoiFetcher {
+
+    private static final int POIS_PER_TILE = 5;
+
+    @Override
+    public List<Poi> fetch(String type, BoundingBox box) {
+        long seed = Double.hashCode(box.getMinLat()) * 31L + Double.hashCode(box.getMinLng()) + type.hashCode();
+        Random random = new Random(seed);
+        List<Poi> pois = new ArrayList<>(POIS_PER_TILE);
+        for (int i = 0; i < POIS_PER_TILE; i++) {
+            double lat = box.getMinLat() + random.nextDouble() * (box.getMaxLat() - box.getMinLat());
+            double lng = box.getMinLng() + random.nextDouble() * (box.getMaxLng() - box.getMinLng());
+            // Negative ids never collide with real OSM node ids
+            pois.add(new Poi(-Math.abs(seed * POIS_PER_TILE + i), "Stub " + type + " " + (i + 1), type, lat, lng));
+        }
+        return pois;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mapapppro.service;
+
+import com.mapapppro.geo.GeoUtils;
+import com.mapapppro.model.TripLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Distance/time dead-band applied before a fix is persisted. A fix is
+ * dropped when the driver has not moved far enough from the last accepted
+ * fix and the heartbeat interval has not elapsed yet. Status changes always
+ * pass, so MOVING/IDLE/STOPPED transitions are never lost.
+ */
+@Component
+public class TrackPointFilter {
+
+    @Value("${opentrack.ingest.filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${opentrack.ingest.filter.min-distance-meters:15}")
+    private double minDistanceMeters;
+
+    @Value("${opentrack.ingest.filter.max-interval-seconds:60}")
+    private long maxIntervalSeconds;
+
+    /**
+     * @param previous the driver's last accepted fix, or null
+     * @return true if the candidate should be kept
+     */
+    public boolean accept(TripLog previous, TripLog candidate) {
+        if (!enabled || previous == null) {
+            return true;
+        }
+        if (!Objects.equals(previous.getStatus(), candidate.getStatus())) {
+            return true;
+        }
+        if (previous.getTimestamp() == null || candidate.getTimestamp() == null
+                || !candidate.getTimestamp().isAfter(previous.getTimestamp())) {
+            // Out-of-order or untimed fixes cannot be compared; keep them for history
+            return true;
+        }
+        if (Duration.between(previous.getTimestamp(), candidate.getTimestamp()).getSeconds() >= maxIntervalSeconds) {
+            return true;
+        }
+        double moved = GeoUtils.haversineMeters(
+                previous.getLatitude(), previous.getLongitude(), candidate.getLatitude(), candidate.getLongitude());
+        return moved >= minDistanceMeters;
+    }
+}
@@ -0,0 +1,88 @@
+package com.mapapppro.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mapapppro.geo.PolylineEncoder;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.TripLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Streams a driver's track out of trip_logs using keyset pagination on
+ * (driver_id, timestamp, id). Each page borrows a pooled connection only for
+ * its own short query, and rows are written to the response as they arrive,
+ * so a full-day replay never sits in the heap.
+ */
+@Service
+public class TripHistoryService {
+
+    @Autowired private TripLogRepository tripLogRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${opentrack.history.page-size:1000}")
+    private int pageSize;
+
+    public interface PageConsumer {
+        void accept(List<TripLog> page) throws IOException;
+    }
+
+    public void forEachPage(Long driverId, LocalDateTime from, LocalDateTime to, PageConsumer consumer) throws IOException {
+        LocalDateTime afterTimestamp = from;
+        Long afterId = -1L;
+        while (true) {
+            List<TripLog> page = tripLogRepository.findHistoryPage(
+                    driverId, afterTimestamp, afterId, to, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            consumer.accept(page);
+            if (page.size() < pageSize) {
+                return;
+            }
+            TripLog last = page.get(page.size() - 1);
+            afterTimestamp = last.getTimestamp();
+            afterId = last.getId();
+        }
+    }
+
+    public void writeJson(Long driverId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            forEachPage(driverId, from, to, page -> {
+                for (TripLog log : page) {
+                    json.writeStartObject();
+                    json.writeNumberField("latitude", log.getLatitude());
+                    json.writeNumberField("longitude", log.getLongitude());
+                    json.writeStringField("status", log.getStatus());
+                    json.writeObjectField("timestamp", log.getTimestamp());
+                    json.writeEndObject();
+                }
+                json.flush();
+            });
+            json.writeEndArray();
+        }
+    }
+
+    public void writePolyline(Long driverId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+        PolylineEncoder encoder = new PolylineEncoder(writer);
+        forEachPage(driverId, from, to, page -> {
+            for (TripLog log : page) {
+                encoder.append(log.getLatitude(), log.getLongitude());
+            }
+            writer.flush();
+        });
+        writer.flush();
+    }
+}
@@ -0,0 +1,269 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.repository.TripLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for driver fixes. Requests only enqueue; a single
+ * background flusher drains the queue and persists TripLogs with saveAll so
+ * Hibernate can send them as JDBC batches.
+ */
+@Service
+@Lazy(false) // the flusher thread must be running before the first fix arrives
+public class TripLogIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripLogIngestionService.class);
+
+    private static final long RETRY_INITIAL_MS = 250;
+    private static final long RETRY_MAX_MS = 5000;
+
+    @Autowired private TripLogRepository tripLogRepository;
+    @Autowired private LiveFleetRegistry liveFleetRegistry;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private TrackPointFilter trackPointFilter;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${opentrack.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${opentrack.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${opentrack.ingest.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${opentrack.ingest.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<TripLog> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Counter acceptedPoints;
+    private Counter filteredPoints;
+    private Counter rejectedPoints;
+    private Counter droppedPoints;
+    private Timer flushTimer;
+    private DistributionSummary flushBatchSize;
+
+    @PostConstruct
+    void start() {
+        // rate(opentrack_ingest_points_total{outcome="accepted"}) is the ingest points per second
+        acceptedPoints = Counter.builder("opentrack.ingest.points").tag("outcome", "accepted").register(meterRegistry);
+        filteredPoints = Counter.builder("opentrack.ingest.points").tag("outcome", "filtered").register(meterRegistry);
+        rejectedPoints = Counter.builder("opentrack.ingest.points").tag("outcome", "rejected").register(meterRegistry);
+        // Accepted but never written: refused by the database, or still failing at shutdown
+        droppedPoints = Counter.builder("opentrack.ingest.points").tag("outcome", "dropped").register(meterRegistry);
+        flushTimer = Timer.builder("opentrack.ingest.flush")
+                .description("Time to write one batch to trip_logs")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushBatchSize = DistributionSummary.builder("opentrack.ingest.flush.batch.size")
+                .baseUnit("points")
+                .register(meterRegistry);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "triplog-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public enum Outcome {
+        ACCEPTED,
+        // Inside the dead-band of the driver's last fix; nothing to persist
+        FILTERED,
+        // Queue stayed full for the offer timeout; callers should shed load
+        REJECTED
+    }
+
+    /**
+     * Filters a fix, queues it for persistence and updates the live view.
+     */
+    public Outcome submit(TripLog tripLog) {
+        if (!trackPointFilter.accept(liveFleetRegistry.get(tripLog.getDriverId()), tripLog)) {
+            filteredPoints.increment();
+            return Outcome.FILTERED;
+        }
+        try {
+            if (!running || !queue.offer(tripLog, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedPoints.increment();
+                return Outcome.REJECTED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedPoints.increment();
+            return Outcome.REJECTED;
+        }
+        acceptedPoints.increment();
+        boolean latest = liveFleetRegistry.update(tripLog);
+        eventPublisher.publishEvent(new TripLogAcceptedEvent(tripLog, latest));
+        return Outcome.ACCEPTED;
+    }
+
+    /**
+     * Persists a client-buffered batch synchronously in one transaction, so the
+     * client can discard the points once this returns. Points are filtered in
+     * time order against the driver's previous kept fix.
+     *
+     * Points newer than the driver's live fix become the live fix in turn and
+     * reach KPIs, segments and geofences like streamed fixes. Older ones are
+     * only stored: those need fixes in time order. The web client uploads its
+     * buffer before sending new fixes, so this only happens when the server
+     * heard from the driver some other way while the client was offline.
+     *
+     * @return the number of points stored after filtering
+     */
+    public int submitBatch(List<TripLog> tripLogs) {
+        List<TripLog> ordered = new ArrayList<>(tripLogs);
+        ordered.sort(Comparator.comparing(TripLog::getTimestamp));
+
+        List<TripLog> kept = new ArrayList<>();
+        TripLog previous = null;
+        if (!ordered.isEmpty()) {
+            TripLog live = liveFleetRegistry.get(ordered.get(0).getDriverId());
+            // Only compare against the live fix if the batch continues from it
+            if (live != null && live.getTimestamp() != null && !ordered.get(0).getTimestamp().isBefore(live.getTimestamp())) {
+                previous = live;
+            }
+        }
+        for (TripLog tripLog : ordered) {
+            if (trackPointFilter.accept(previous, tripLog)) {
+                kept.add(tripLog);
+                previous = tripLog;
+            }
+        }
+        filteredPoints.increment(ordered.size() - kept.size());
+        if (kept.isEmpty()) {
+            return 0;
+        }
+        acceptedPoints.increment(kept.size());
+
+        tripLogRepository.saveAll(kept);
+        for (TripLog tripLog : kept) {
+            boolean latest = liveFleetRegistry.update(tripLog);
+            eventPublisher.publishEvent(new TripLogAcceptedEvent(tripLog, latest));
+        }
+        return kept.size();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void flushLoop() {
+        List<TripLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                TripLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) break;
+                    TripLog next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Final drain at shutdown, here so that only this thread ever writes
+        while (queue.drainTo(batch, batchSize - batch.size()) > 0 || !batch.isEmpty()) {
+            persist(batch);
+        }
+    }
+
+    private void persist(List<TripLog> batch) {
+        try {
+            flushBatchSize.record(batch.size());
+            write(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Clients were already told their fixes were saved, so a failed write is
+     * retried with backoff for as long as the service runs; meanwhile the
+     * queue fills and new fixes are rejected. Rows the database refuses are
+     * isolated by splitting the batch and dropped one by one.
+     */
+    private void write(List<TripLog> batch) {
+        long backoffMs = RETRY_INITIAL_MS;
+        while (true) {
+            try {
+                flushTimer.record(() -> tripLogRepository.saveAll(batch));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // The transaction rolled back; let the sequence hand out fresh ids
+                batch.forEach(tripLog -> tripLog.setId(null));
+                if (batch.size() == 1) {
+                    droppedPoints.increment();
+                    log.error("Dropping fix for driver {} rejected by the database", batch.get(0).getDriverId(), e);
+                    return;
+                }
+                int half = batch.size() / 2;
+                write(new ArrayList<>(batch.subList(0, half)));
+                write(new ArrayList<>(batch.subList(half, batch.size())));
+                return;
+            } catch (RuntimeException e) {
+                batch.forEach(tripLog -> tripLog.setId(null));
+                if (!running) {
+                    droppedPoints.increment(batch.size());
+                    log.error("Dropping {} trip logs at shutdown", batch.size(), e);
+                    return;
+                }
+                log.warn("Failed to persist {} trip logs, retrying in {} ms: {}", batch.size(), backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    droppedPoints.increment(batch.size());
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, RETRY_MAX_MS);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The flusher finishes its current batch, drains the queue and exits
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        if (flusher.isAlive()) {
+            log.warn("Trip log flusher still writing after 10 s, interrupting it");
+            flusher.interrupt();
+            flusher.join();
+        }
+    }
+}
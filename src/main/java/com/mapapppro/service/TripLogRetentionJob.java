@@ -0,0 +1,156 @@
+package com.mapapppro.service;
+
+import com.mapapppro.model.TripLog;
+import com.mapapppro.model.TripLogRollup;
+import com.mapapppro.repository.TripLogRepository;
+import com.mapapppro.repository.TripLogRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps raw trip_logs for a fixed number of days and folds older points into
+ * trip_log_rollups, one row per driver per bucket.
+ *
+ * Work is done in small chunks, oldest first. Each chunk upserts its rollups
+ * and deletes its raw rows in one short transaction, so an interrupted run
+ * simply resumes with the next chunk. Between chunks the job pauses to give
+ * the two pooled connections back to request traffic.
+ *
+ * With several instances, each run first takes the retention lease in
+ * job_locks, so only one node compacts at a time. Rollups also carry a
+ * version, so a conflicting write rolls its chunk back instead of losing
+ * counts.
+ */
+@Component
+@Lazy(false) // @Scheduled methods are only registered on beans that get created
+public class TripLogRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TripLogRetentionJob.class);
+
+    private static final String LOCK_NAME = "trip-log-retention";
+
+    @Autowired private TripLogRepository tripLogRepository;
+    @Autowired private TripLogRollupRepository rollupRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JobLocks jobLocks;
+
+    @Value("${opentrack.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${opentrack.retention.raw-days:30}")
+    private int rawDays;
+
+    @Value("${opentrack.retention.bucket-seconds:60}")
+    private int bucketSeconds;
+
+    @Value("${opentrack.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${opentrack.retention.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${opentrack.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${opentrack.retention.lock-minutes:60}")
+    private long lockMinutes;
+
+    private record BucketKey(Long driverId, LocalDateTime bucketStart) {}
+
+    @Scheduled(initialDelayString = "${opentrack.retention.initial-delay-ms:300000}",
+               fixedDelayString = "${opentrack.retention.interval-ms:3600000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        if (!jobLocks.tryLock(LOCK_NAME, Duration.ofMinutes(lockMinutes))) {
+            log.debug("Trip log retention is running on another node");
+            return;
+        }
+        try {
+            compactChunks();
+        } finally {
+            jobLocks.unlock(LOCK_NAME);
+        }
+    }
+
+    private void compactChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(rawDays);
+        int total = 0;
+        for (int i = 0; i < maxChunksPerRun; i++) {
+            Integer processed;
+            try {
+                processed = transactionTemplate.execute(status -> compactChunk(cutoff));
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                // Another writer touched the same rollups; the chunk rolled back and is redone next run
+                log.warn("Trip log rollup conflicted, retrying next run: {}", e.getMessage());
+                break;
+            }
+            total += processed != null ? processed : 0;
+            if (processed == null || processed < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Rolled up {} trip log points older than {}", total, cutoff);
+        }
+    }
+
+    private int compactChunk(LocalDateTime cutoff) {
+        List<TripLog> chunk = tripLogRepository.findByTimestampBeforeOrderByTimestampAscIdAsc(
+                cutoff, PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> driverIds = new HashSet<>();
+        Set<LocalDateTime> buckets = new HashSet<>();
+        for (TripLog point : chunk) {
+            driverIds.add(point.getDriverId());
+            buckets.add(bucketOf(point.getTimestamp()));
+        }
+
+        // A bucket can straddle two chunks, so merge into rollups written earlier
+        Map<BucketKey, TripLogRollup> rollups = new HashMap<>();
+        for (TripLogRollup existing : rollupRepository.findByDriverIdInAndBucketStartIn(driverIds, buckets)) {
+            rollups.put(new BucketKey(existing.getDriverId(), existing.getBucketStart()), existing);
+        }
+        for (TripLog point : chunk) {
+            BucketKey key = new BucketKey(point.getDriverId(), bucketOf(point.getTimestamp()));
+            rollups.computeIfAbsent(key, k -> new TripLogRollup(k.driverId(), k.bucketStart())).add(point);
+        }
+
+        rollupRepository.saveAll(rollups.values());
+        tripLogRepository.deleteAllByIdInBatch(chunk.stream().map(TripLog::getId).toList());
+        return chunk.size();
+    }
+
+    private LocalDateTime bucketOf(LocalDateTime timestamp) {
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, bucketSeconds), 0, ZoneOffset.UTC);
+    }
+}
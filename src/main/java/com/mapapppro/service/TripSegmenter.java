@@ -0,0 +1,247 @@
+package com.mapapppro.service;
+
+import com.mapapppro.event.TripLogAcceptedEvent;
+import com.mapapppro.geo.GeoUtils;
+import com.mapapppro.model.TripLog;
+import com.mapapppro.model.TripSegment;
+import com.mapapppro.repository.TripSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits each driver's fix stream into TRIP and STOP segments as fixes
+ * arrive, independent of the client-reported status.
+ *
+ * While on a trip, the first fix of a possible stop becomes the anchor. If
+ * the driver then stays within dwell-radius-meters of it for
+ * min-stop-seconds, the trip is cut back to the anchor and a stop opens
+ * there. The stop ends at the last fix before the driver leaves the radius,
+ * and the next trip starts from that fix. A gap longer than max-gap-seconds
+ * ends the segment, unless the driver reappears inside the stop radius.
+ *
+ * Open segments live in memory. Closed ones are written by a background
+ * thread, and open ones are closed and written on shutdown.
+ */
+@Service
+public class TripSegmenter {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSegmenter.class);
+
+    @Autowired private TripSegmentRepository segmentRepository;
+
+    @Value("${opentrack.segments.dwell-radius-meters:75}")
+    private double dwellRadiusMeters;
+
+    @Value("${opentrack.segments.min-stop-seconds:180}")
+    private long minStopSeconds;
+
+    @Value("${opentrack.segments.max-gap-seconds:900}")
+    private long maxGapSeconds;
+
+    @Value("${opentrack.segments.writer-queue:10000}")
+    private int writerQueue;
+
+    private static class DriverState {
+        TripLog last;
+        TripSegment current;
+        // First fix of a possible stop, and what the trip gained since it
+        TripLog anchor;
+        int tentativePoints;
+        double tentativeMeters;
+    }
+
+    private final ConcurrentHashMap<Long, DriverState> drivers = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor writer;
+
+    @PostConstruct
+    void start() {
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(writerQueue), r -> {
+            Thread t = new Thread(r, "segment-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        List<TripSegment> open = new ArrayList<>();
+        for (DriverState state : drivers.values()) {
+            synchronized (state) {
+                if (state.current != null && isWorthKeeping(state.current)) {
+                    open.add(state.current);
+                }
+                state.current = null;
+            }
+        }
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        if (!open.isEmpty()) {
+            segmentRepository.saveAll(open);
+        }
+    }
+
+    @EventListener
+    public void onTripLogAccepted(TripLogAcceptedEvent event) {
+        // Only fixes that became the current position arrive in time order;
+        // remote fixes are segmented by the node that owns the driver
+        if (event.isLatest() && !event.isRemote()) {
+            accept(event.getTripLog());
+        }
+    }
+
+    private void accept(TripLog fix) {
+        DriverState state = drivers.computeIfAbsent(fix.getDriverId(), id -> new DriverState());
+        synchronized (state) {
+            if (state.current == null) {
+                startTrip(state, fix);
+                return;
+            }
+            TripLog last = state.last;
+            long gap = Duration.between(last.getTimestamp(), fix.getTimestamp()).getSeconds();
+            double step = distance(last, fix);
+            boolean nearAnchor = distance(state.anchor, fix) <= dwellRadiusMeters;
+
+            if (gap > maxGapSeconds && !nearAnchor) {
+                // Offline and reappeared elsewhere: the path in between is unknown
+                if (isWorthKeeping(state.current)) {
+                    close(state.current);
+                }
+                startTrip(state, fix);
+                return;
+            }
+
+            if ("STOP".equals(state.current.getType())) {
+                if (nearAnchor) {
+                    state.current.extend(fix, 0);
+                } else {
+                    close(state.current);
+                    state.current = new TripSegment(fix.getDriverId(), "TRIP", last);
+                    state.current.extend(fix, step);
+                    resetAnchor(state, fix);
+                }
+            } else {
+                state.current.extend(fix, step);
+                if (!nearAnchor) {
+                    resetAnchor(state, fix);
+                } else {
+                    state.tentativePoints++;
+                    state.tentativeMeters += step;
+                    if (Duration.between(state.anchor.getTimestamp(), fix.getTimestamp()).getSeconds() >= minStopSeconds) {
+                        // The trip really ended at the anchor; everything since belongs to the stop
+                        state.current.retract(state.tentativePoints, state.tentativeMeters, state.anchor);
+                        if (isWorthKeeping(state.current)) {
+                            close(state.current);
+                        }
+                        TripSegment stop = new TripSegment(fix.getDriverId(), "STOP", state.anchor);
+                        stop.extend(fix, 0);
+                        stop.setPointCount(state.tentativePoints + 1);
+                        state.current = stop;
+                    }
+                }
+            }
+            state.last = fix;
+        }
+    }
+
+    /**
+     * @return the closed segments overlapping [from, to], followed by the
+     *         driver's open segment if it overlaps too
+     */
+    public List<TripSegment> segments(Long driverId, LocalDateTime from, LocalDateTime to) {
+        // Both lookups are bounded ranges on (driver_id, end_time), however old the window
+        List<TripSegment> result = new ArrayList<>(
+                segmentRepository.findByDriverIdAndEndTimeBetweenOrderByEndTimeAsc(driverId, from, to));
+        segmentRepository.findFirstByDriverIdAndEndTimeGreaterThanOrderByEndTimeAsc(driverId, to)
+                .filter(spanning -> !spanning.getStartTime().isAfter(to))
+                .ifPresent(result::add);
+        DriverState state = drivers.get(driverId);
+        if (state != null) {
+            synchronized (state) {
+                TripSegment open = state.current;
+                if (open != null && !open.getEndTime().isBefore(from) && !open.getStartTime().isAfter(to)) {
+                    result.add(copyOf(open));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void startTrip(DriverState state, TripLog fix) {
+        state.current = new TripSegment(fix.getDriverId(), "TRIP", fix);
+        state.last = fix;
+        resetAnchor(state, fix);
+    }
+
+    private static void resetAnchor(DriverState state, TripLog fix) {
+        state.anchor = fix;
+        state.tentativePoints = 0;
+        state.tentativeMeters = 0;
+    }
+
+    // A one-point trip is just the first fix of a stop, or a driver seen once
+    private static boolean isWorthKeeping(TripSegment segment) {
+        return "STOP".equals(segment.getType()) || segment.getPointCount() > 1;
+    }
+
+    private void close(TripSegment segment) {
+        try {
+            writer.execute(() -> save(segment));
+        } catch (RejectedExecutionException e) {
+            if (writer.isShutdown()) {
+                // A fix that raced with stop(); the writer is gone, so write it here
+                save(segment);
+            } else {
+                log.warn("Segment writer queue full, dropping {} segment for driver {}", segment.getType(), segment.getDriverId());
+            }
+        }
+    }
+
+    private void save(TripSegment segment) {
+        try {
+            segmentRepository.save(segment);
+        } catch (RuntimeException e) {
+            log.error("Failed to save {} segment for driver {}", segment.getType(), segment.getDriverId(), e);
+        }
+    }
+
+    // The open segment keeps changing under the driver lock; callers get a snapshot
+    private static TripSegment copyOf(TripSegment open) {
+        TripSegment copy = new TripSegment();
+        copy.setDriverId(open.getDriverId());
+        copy.setType(open.getType());
+        copy.setStartTime(open.getStartTime());
+        copy.setEndTime(open.getEndTime());
+        copy.setStartLat(open.getStartLat());
+        copy.setStartLng(open.getStartLng());
+        copy.setEndLat(open.getEndLat());
+        copy.setEndLng(open.getEndLng());
+        copy.setMinLat(open.getMinLat());
+        copy.setMinLng(open.getMinLng());
+        copy.setMaxLat(open.getMaxLat());
+        copy.setMaxLng(open.getMaxLng());
+        copy.setPointCount(open.getPointCount());
+        copy.setDistanceMeters(open.getDistanceMeters());
+        copy.setDurationSeconds(open.getDurationSeconds());
+        return copy;
+    }
+
+    private static double distance(TripLog a, TripLog b) {
+        return GeoUtils.haversineMeters(a.getLatitude(), a.getLongitude(), b.getLatitude(), b.getLongitude());
+    }
+}
@@ -0,0 +1,357 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.UserCreateDTO;
+import com.mapapppro.event.UsersImportedEvent;
+import com.mapapppro.model.User;
+import com.mapapppro.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates many users in one request, for onboarding a depot at once.
+ *
+ * Rows are validated like /api/admin/users/create. Duplicates are found
+ * with one query for the whole file. BCrypt hashing, which dominates the
+ * cost, runs on a pool sized to the cores, and users are inserted in JDBC
+ * batches. Every row gets its own outcome in the report; one bad row never
+ * fails the rest.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    // Header names accepted in CSV uploads, matched case-insensitively
+    private static final List<String> CSV_COLUMNS = List.of(
+            "username", "password", "role", "fullName", "licenseNo", "plateNo", "phone", "shiftSchedule");
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private Validator validator;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${opentrack.users.import.max-rows:5000}")
+    private int maxRows;
+
+    @Value("${opentrack.users.import.hash-threads:0}")
+    private int hashThreads;
+
+    private ThreadPoolExecutor hasher;
+
+    private static class Row {
+        final int number;
+        final UserCreateDTO dto;
+        String status;
+        List<String> errors;
+        User user;
+
+        Row(int number, UserCreateDTO dto) {
+            this.number = number;
+            this.dto = dto;
+        }
+
+        void fail(String status, List<String> errors) {
+            this.status = status;
+            this.errors = errors;
+            this.user = null;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadId = new AtomicInteger();
+        // When the queue is full the request thread hashes too, which also throttles concurrent imports
+        hasher = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), r -> {
+                    Thread t = new Thread(r, "user-import-hash-" + threadId.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        hasher.shutdownNow();
+    }
+
+    /**
+     * @return {total, created, failed, rows: [{row, username, status, id | errors}]}
+     *         where status is CREATED, INVALID, DUPLICATE or FAILED
+     * @throws IllegalArgumentException if there are no rows or more than max-rows
+     */
+    public Map<String, Object> importUsers(List<UserCreateDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("No users to import");
+        }
+        if (dtos.size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " users per import");
+        }
+        List<Row> rows = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            rows.add(new Row(i + 1, dtos.get(i)));
+        }
+
+        List<Row> pending = validate(rows);
+        pending = rejectDuplicates(pending);
+        hashPasswords(pending);
+        save(pending);
+
+        int created = 0;
+        long firstId = Long.MAX_VALUE;
+        long lastId = Long.MIN_VALUE;
+        List<Map<String, Object>> report = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("row", row.number);
+            entry.put("username", row.dto != null ? row.dto.getUsername() : null);
+            entry.put("status", row.status);
+            if (row.user != null) {
+                created++;
+                entry.put("id", row.user.getId());
+                firstId = Math.min(firstId, row.user.getId());
+                lastId = Math.max(lastId, row.user.getId());
+            } else {
+                entry.put("errors", row.errors);
+            }
+            report.add(entry);
+        }
+        log.info("Imported {} of {} users", created, rows.size());
+        if (created > 0) {
+            // One event for the whole import: a reindex query and one change for the other nodes
+            eventPublisher.publishEvent(new UsersImportedEvent(firstId, lastId));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", rows.size());
+        result.put("created", created);
+        result.put("failed", rows.size() - created);
+        result.put("rows", report);
+        return result;
+    }
+
+    private List<Row> validate(List<Row> rows) {
+        List<Row> valid = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.dto == null) {
+                row.fail("INVALID", List.of("Empty row"));
+                continue;
+            }
+            Set<ConstraintViolation<UserCreateDTO>> violations = validator.validate(row.dto);
+            if (!violations.isEmpty()) {
+                row.fail("INVALID", violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                continue;
+            }
+            valid.add(row);
+        }
+        return valid;
+    }
+
+    // Usernames compare case-insensitively, as the users table collation does
+    private List<Row> rejectDuplicates(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> taken = new HashSet<>();
+        for (String username : userRepository.findUsernamesIn(rows.stream().map(r -> r.dto.getUsername()).toList())) {
+            taken.add(username.toLowerCase(Locale.ROOT));
+        }
+        Set<String> seen = new HashSet<>();
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String key = row.dto.getUsername().toLowerCase(Locale.ROOT);
+            if (taken.contains(key)) {
+                row.fail("DUPLICATE", List.of("Username already exists"));
+            } else if (!seen.add(key)) {
+                row.fail("DUPLICATE", List.of("Username appears earlier in this import"));
+            } else {
+                unique.add(row);
+            }
+        }
+        return unique;
+    }
+
+    private void hashPasswords(List<Row> rows) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String password = row.dto.getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hasher));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).user = toUser(rows.get(i).dto, hashes.get(i).join());
+        }
+    }
+
+    private void save(List<Row> rows) {
+        for (int from = 0; from < rows.size(); from += User.ID_ALLOCATION_SIZE) {
+            List<Row> chunk = rows.subList(from, Math.min(from + User.ID_ALLOCATION_SIZE, rows.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        userRepository.saveAll(chunk.stream().map(r -> r.user).toList()));
+                chunk.forEach(r -> r.status = "CREATED");
+            } catch (RuntimeException e) {
+                // Most likely a username taken since the duplicate check; find which row one by one
+                log.warn("Batch insert of {} users failed, retrying row by row: {}", chunk.size(), e.getMessage());
+                chunk.forEach(this::saveOne);
+            }
+        }
+    }
+
+    private void saveOne(Row row) {
+        row.user.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.save(row.user));
+            row.status = "CREATED";
+        } catch (RuntimeException e) {
+            row.fail("FAILED", List.of("Could not be saved"));
+        }
+    }
+
+    private static User toUser(UserCreateDTO dto, String passwordHash) {
+        User user = new User();
+        user.setUsername(dto.getUsername());
+        user.setPassword(passwordHash);
+        user.setRole(dto.getRole());
+        user.setFullName(dto.getFullName());
+        user.setLicenseNo(dto.getLicenseNo());
+        user.setPlateNo(dto.getPlateNo());
+        user.setPhone(dto.getPhone());
+        user.setShiftSchedule(dto.getShiftSchedule());
+        user.setActive(true);
+        return user;
+    }
+
+    // --- CSV ---
+
+    /**
+     * Reads users from CSV with a header row naming the columns (username,
+     * password, role, fullName, licenseNo, plateNo, phone, shiftSchedule) in
+     * any order. Fields may be quoted; empty fields are left unset.
+     *
+     * @throws IllegalArgumentException on an unknown column, an unterminated
+     *         quote or a line with more fields than the header
+     */
+    public List<UserCreateDTO> parseCsv(String csv) {
+        List<List<String>> records = readRecords(csv);
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = records.get(0);
+        Map<Integer, String> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            String column = CSV_COLUMNS.stream().filter(c -> c.equalsIgnoreCase(name)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown column: " + name));
+            columns.put(i, column);
+        }
+
+        List<UserCreateDTO> users = new ArrayList<>(records.size() - 1);
+        for (int r = 1; r < records.size(); r++) {
+            List<String> fields = records.get(r);
+            if (fields.size() > header.size()) {
+                throw new IllegalArgumentException("Row " + r + " has more fields than the header");
+            }
+            UserCreateDTO dto = new UserCreateDTO();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                if (!value.isEmpty()) {
+                    set(dto, columns.get(i), value);
+                }
+            }
+            users.add(dto);
+        }
+        return users;
+    }
+
+    private static void set(UserCreateDTO dto, String column, String value) {
+        switch (column) {
+            case "username" -> dto.setUsername(value);
+            case "password" -> dto.setPassword(value);
+            case "role" -> dto.setRole(value.toUpperCase(Locale.ROOT));
+            case "fullName" -> dto.setFullName(value);
+            case "licenseNo" -> dto.setLicenseNo(value);
+            case "plateNo" -> dto.setPlateNo(value);
+            case "phone" -> dto.setPhone(value);
+            case "shiftSchedule" -> dto.setShiftSchedule(value);
+            default -> throw new IllegalStateException(column);
+        }
+    }
+
+    // RFC 4180 records; blank lines are skipped
+    private static List<List<String>> readRecords(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int start = !csv.isEmpty() && csv.charAt(0) == '\uFEFF' ? 1 : 0;
+        for (int i = start; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                endRecord(records, fields, field, wasQuoted);
+                fields = new ArrayList<>();
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        endRecord(records, fields, field, wasQuoted);
+        return records;
+    }
+
+    private static void endRecord(List<List<String>> records, List<String> fields, StringBuilder field, boolean wasQuoted) {
+        fields.add(field.toString());
+        field.setLength(0);
+        if (fields.size() > 1 || wasQuoted || !fields.get(0).isBlank()) {
+            records.add(fields);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mapapppro.service;
+
+import com.mapapppro.dto.UserSummaryDTO;
+import com.mapapppro.event.UserChangedEvent;
+import com.mapapppro.event.UsersImportedEvent;
+import com.mapapppro.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over username, fullName and plateNo for the admin
+ * user search. Every word of a query must prefix-match some token of the
+ * user ("juan ab1" finds Juan Dela Cruz driving ABC-1234).
+ *
+ * Loaded once at startup and kept current from UserChangedEvent and
+ * UsersImportedEvent; the index holds only ids, and matching users are read
+ * back through the same filtered projection query as the plain listing.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 2000;
+    // Search hits are checked against the filters this many ids at a time
+    private static final int CANDIDATE_CHUNK = 1000;
+
+    @Autowired private UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        long afterId = 0;
+        List<UserSummaryDTO> page;
+        do {
+            page = userRepository.findAllSummaries(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (UserSummaryDTO user : page) {
+                index(user);
+                afterId = user.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Indexed {} users for search", tokensByUser.size());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        UserSummaryDTO user = userRepository.findSummaryById(event.getUserId());
+        if (user != null) {
+            index(user);
+        } else {
+            remove(event.getUserId());
+        }
+    }
+
+    @EventListener
+    public void onUsersImported(UsersImportedEvent event) {
+        for (UserSummaryDTO user : userRepository.findSummariesBetween(event.getFirstId(), event.getLastId())) {
+            index(user);
+        }
+    }
+
+    /**
+     * One keyset page of users matching the query and filters, ordered by id.
+     */
+    public List<UserSummaryDTO> searchPage(String query, long afterId, String role, Boolean active,
+                                           String shift, int limit) {
+        TreeSet<Long> ids = search(query);
+        List<UserSummaryDTO> result = new ArrayList<>(limit);
+        Iterator<Long> it = ids.tailSet(afterId, false).iterator();
+        while (it.hasNext() && result.size() < limit) {
+            List<Long> chunk = new ArrayList<>(CANDIDATE_CHUNK);
+            while (it.hasNext() && chunk.size() < CANDIDATE_CHUNK) {
+                chunk.add(it.next());
+            }
+            result.addAll(userRepository.findSummariesByIdIn(chunk, role, active, shift,
+                    PageRequest.of(0, limit - result.size())));
+        }
+        return result;
+    }
+
+    /**
+     * @return ids of users for whom every query word prefixes one of their tokens
+     */
+    public TreeSet<Long> search(String query) {
+        TreeSet<Long> result = null;
+        for (String word : tokenize(query)) {
+            Set<Long> hits = new HashSet<>();
+            for (Set<Long> ids : tokens.subMap(word, true, word + Character.MAX_VALUE, true).values()) {
+                hits.addAll(ids);
+            }
+            if (result == null) {
+                result = new TreeSet<>(hits);
+            } else {
+                result.retainAll(hits);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result != null ? result : new TreeSet<>();
+    }
+
+    private synchronized void index(UserSummaryDTO user) {
+        remove(user.getId());
+        Set<String> userTokens = new HashSet<>();
+        userTokens.addAll(tokenize(user.getUsername()));
+        userTokens.addAll(tokenize(user.getFullName()));
+        userTokens.addAll(tokenize(user.getPlateNo()));
+        if (user.getPlateNo() != null) {
+            // "ABC-1234" is also findable as "abc1234"
+            userTokens.add(user.getPlateNo().replaceAll("[^\\p{L}\\p{N}]", "").toLowerCase(Locale.ROOT));
+        }
+        userTokens.remove("");
+        for (String token : userTokens) {
+            tokens.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+        tokensByUser.put(user.getId(), userTokens);
+    }
+
+    private synchronized void remove(Long userId) {
+        Set<String> previous = tokensByUser.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous) {
+            Set<Long> ids = tokens.get(token);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    tokens.remove(token, ids);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+}
@@ -46,6 +46,7 @@ const LANDMARK_ICONS = {
 let routePolyline = null;
 let driverWatchId = null;
 const fleetMarkers = {};
+const fleetState = {};
 
 let followedDriverId = null;
 let isFollowing = false;
@@ -95,7 +96,7 @@ function initDriverMode() {
   });
 
   document.getElementById("startNavBtn").addEventListener("click", toggleDriverTracking);
-  setInterval(checkForMessages, 5000);
+  pollForMessages();
 }
 
 function toggleDriverTracking() {
@@ -125,13 +126,27 @@ function toggleDriverTracking() {
         const { latitude, longitude } = pos.coords;
         console.log("[OpenTrack] Location update:", latitude, longitude);
 
-        fetch("/api/driver/update", {
-          method: "POST",
-          headers: { "Content-Type": "application/json" },
-          body: JSON.stringify({ lat: latitude, lng: longitude, status: "MOVING" }),
-        })
-        .then(() => console.log("[OpenTrack] Location sent to server"))
-        .catch((err) => console.error("[OpenTrack] Error sending location:", err));
+        const fix = { lat: latitude, lng: longitude, status: "MOVING", timestamp: pos.timestamp };
+
+        // While older fixes are waiting, queue behind them so the server sees the track in order
+        if (flushingFixes || readBufferedFixes().length > 0) {
+          bufferFix(fix);
+          flushBufferedFixes();
+        } else {
+          fetch("/api/driver/update", {
+            method: "POST",
+            headers: { "Content-Type": "application/json" },
+            body: JSON.stringify(fix),
+          })
+          .then((res) => {
+            if (!isAcknowledged(res)) throw new Error("HTTP " + res.status);
+            console.log("[OpenTrack] Location sent to server");
+          })
+          .catch((err) => {
+            console.error("[OpenTrack] Error sending location, buffering:", err);
+            bufferFix(fix);
+          });
+        }
 
         map.setView([latitude, longitude], 17);
       },
@@ -144,27 +159,139 @@ function toggleDriverTracking() {
   }
 }
 
-function checkForMessages() {
-  fetch("/api/driver/messages")
-    .then((r) => r.json())
-    .then((msgs) => {
-      if (msgs.length > 0) {
-        msgs.forEach((m) => {
-          alert("📢 DISPATCHER: " + m.message);
-          if (window.speechSynthesis) {
-            const u = new SpeechSynthesisUtterance(m.message);
-            window.speechSynthesis.speak(u);
-          }
-        });
+// Fixes that could not be sent (dead zones, server busy) are kept in localStorage
+// and uploaded in order through the batch endpoint once the connection is back.
+const FIX_BUFFER_KEY = "opentrack.pendingFixes";
+const FIX_BUFFER_LIMIT = 5000;
+const FIX_BATCH_SIZE = 500;
+let flushingFixes = false;
+
+// Only a JSON 2xx means the server took the fixes. An expired session ends on
+// the HTML login page (a 200 after the redirect), which is retried later.
+function isAcknowledged(res) {
+  const type = res.headers.get("Content-Type") || "";
+  return res.ok && !res.redirected && type.includes("application/json");
+}
+
+function readBufferedFixes() {
+  try {
+    return JSON.parse(localStorage.getItem(FIX_BUFFER_KEY)) || [];
+  } catch (e) {
+    return [];
+  }
+}
+
+function bufferFix(fix) {
+  const fixes = readBufferedFixes();
+  fixes.push(fix);
+  localStorage.setItem(FIX_BUFFER_KEY, JSON.stringify(fixes.slice(-FIX_BUFFER_LIMIT)));
+}
+
+async function flushBufferedFixes() {
+  if (flushingFixes) return;
+  flushingFixes = true;
+  try {
+    let fixes = readBufferedFixes();
+    while (fixes.length > 0) {
+      const batch = fixes.slice(0, FIX_BATCH_SIZE);
+      const res = await fetch("/api/driver/update/batch", {
+        method: "POST",
+        headers: { "Content-Type": "application/json" },
+        body: JSON.stringify(batch),
+      });
+      if (!isAcknowledged(res)) break; // Keep the points and retry with the next fix
+      // Invalid points were skipped by the server; they would never be accepted, so drop them too
+      const result = await res.json();
+      if (result.rejected && result.rejected.length > 0) {
+        console.warn("[OpenTrack] Server rejected buffered fixes:", result.rejected);
       }
+      // Re-read in case new fixes were buffered while the upload was in flight
+      fixes = readBufferedFixes().slice(batch.length);
+      localStorage.setItem(FIX_BUFFER_KEY, JSON.stringify(fixes));
+      console.log("[OpenTrack] Uploaded", batch.length, "buffered fixes");
+    }
+  } catch (err) {
+    console.error("[OpenTrack] Error uploading buffered fixes:", err);
+  } finally {
+    flushingFixes = false;
+  }
+}
+
+// Long-poll: the server holds the request until a message arrives or ~25s pass
+function pollForMessages() {
+  fetch("/api/driver/messages/poll")
+    .then((r) => {
+      if (!r.ok) throw new Error("HTTP " + r.status);
+      return r.json();
+    })
+    .then((msgs) => {
+      showMessages(msgs);
+      setTimeout(pollForMessages, 0);
     })
-    .catch((err) => console.error("[OpenTrack] Error checking messages:", err));
+    .catch((err) => {
+      console.error("[OpenTrack] Error checking messages:", err);
+      setTimeout(pollForMessages, 5000); // Back off before reconnecting
+    });
+}
+
+function showMessages(msgs) {
+  if (msgs.length > 0) {
+    msgs.forEach((m) => {
+      alert("📢 DISPATCHER: " + m.message);
+      if (window.speechSynthesis) {
+        const u = new SpeechSynthesisUtterance(m.message);
+        window.speechSynthesis.speak(u);
+      }
+    });
+  }
 }
 
 // --- 4. DISPATCHER MODE ---
 function initDispatcherMode() {
   console.log("[OpenTrack] Initializing DISPATCHER mode");
   document.getElementById("dispatcherPanel").style.display = "block";
+
+  if (window.EventSource) {
+    subscribeFleetStream();
+  } else {
+    startFleetPolling();
+  }
+}
+
+// Server pushes a full snapshot on connect, then only the drivers that moved
+function subscribeFleetStream() {
+  const source = new EventSource("/api/fleet/stream");
+
+  source.addEventListener("snapshot", (e) => {
+    const buses = JSON.parse(e.data);
+    Object.keys(fleetState).forEach((id) => delete fleetState[id]);
+    buses.forEach((bus) => (fleetState[bus.driverId] = bus));
+    renderFleet();
+  });
+
+  source.addEventListener("update", (e) => {
+    JSON.parse(e.data).forEach((bus) => (fleetState[bus.driverId] = bus));
+    renderFleet();
+  });
+
+  source.addEventListener("geofence", (e) => {
+    JSON.parse(e.data).forEach((ev) => {
+      const bus = fleetState[ev.driverId];
+      const who = bus && bus.fullName ? bus.fullName : "Driver " + ev.driverId;
+      console.log(`[OpenTrack] ${who} ${ev.type} ${ev.geofenceName || "zone " + ev.geofenceId}`);
+    });
+  });
+
+  source.onerror = () => {
+    // EventSource reconnects by itself; give up only if the server refused the stream
+    if (source.readyState === EventSource.CLOSED) {
+      console.warn("[OpenTrack] Fleet stream unavailable, falling back to polling");
+      startFleetPolling();
+    }
+  };
+}
+
+function startFleetPolling() {
   fetchFleet(); // Initial fetch
   setInterval(fetchFleet, 3000); // Update every 3 seconds
 }
@@ -173,75 +300,81 @@ async function fetchFleet() {
   try {
     const res = await fetch("/api/fleet/status");
     const buses = await res.json();
-    const list = document.getElementById("fleetList");
-    list.innerHTML = "";
-
+    Object.keys(fleetState).forEach((id) => delete fleetState[id]);
+    buses.forEach((bus) => (fleetState[bus.driverId] = bus));
     console.log("[OpenTrack] Fetched", buses.length, "buses");
+    renderFleet();
+  } catch (e) {
+    console.error("[OpenTrack] Error fetching fleet:", e);
+  }
+}
 
-    buses.forEach((bus) => {
-      // Update or create marker
-      if (fleetMarkers[bus.driverId]) {
-        fleetMarkers[bus.driverId].setLatLng([bus.latitude, bus.longitude]);
-      } else {
-        const icon = L.divIcon({
-          className: "bus-icon",
-          html: `<div style="background:#ef4444; color:white; width:36px; height:36px; border-radius:50%; display:flex; align-items:center; justify-content:center; border:3px solid white; font-weight:bold; box-shadow:0 2px 10px rgba(0,0,0,0.4);">${bus.driverId}</div>`,
-          iconSize: [36, 36],
-        });
-        fleetMarkers[bus.driverId] = L.marker([bus.latitude, bus.longitude], { icon }).addTo(map);
-      }
+function renderFleet() {
+  const buses = Object.values(fleetState);
+  const list = document.getElementById("fleetList");
+  list.innerHTML = "";
 
-      // Auto-follow if enabled
-      if (isFollowing && followedDriverId === bus.driverId) {
-        map.panTo([bus.latitude, bus.longitude], { animate: true, duration: 0.5 });
-      }
-
-      // Create list item
-      const item = document.createElement("div");
-      item.className = "p-2 border-bottom border-secondary d-flex justify-content-between align-items-center";
-      if (isFollowing && followedDriverId === bus.driverId) {
-        item.style.background = "rgba(59, 130, 246, 0.2)";
-        item.style.borderLeft = "4px solid #3b82f6";
-      }
+  buses.forEach((bus) => {
+    // Update or create marker
+    if (fleetMarkers[bus.driverId]) {
+      fleetMarkers[bus.driverId].setLatLng([bus.latitude, bus.longitude]);
+    } else {
+      const icon = L.divIcon({
+        className: "bus-icon",
+        html: `<div style="background:#ef4444; color:white; width:36px; height:36px; border-radius:50%; display:flex; align-items:center; justify-content:center; border:3px solid white; font-weight:bold; box-shadow:0 2px 10px rgba(0,0,0,0.4);">${bus.driverId}</div>`,
+        iconSize: [36, 36],
+      });
+      fleetMarkers[bus.driverId] = L.marker([bus.latitude, bus.longitude], { icon }).addTo(map);
+    }
 
-      const info = document.createElement("div");
-      info.innerHTML = `
-        <div><i class="bi bi-bus-front"></i> ${bus.fullName || "Driver #" + bus.driverId}</div>
-        <small class="text-white-50">${bus.plateNo || "No plate"}</small>
-      `;
-
-      const actions = document.createElement("div");
-      actions.className = "d-flex gap-1";
-
-      const followBtn = document.createElement("button");
-      followBtn.className =
-        "btn btn-sm " + (isFollowing && followedDriverId === bus.driverId ? "btn-warning" : "btn-outline-primary");
-      followBtn.innerHTML = '<i class="bi bi-crosshair"></i>';
-      followBtn.title = "Follow Driver";
-      followBtn.onclick = () => toggleFollowMode(bus.driverId, bus.latitude, bus.longitude);
-
-      const msgBtn = document.createElement("button");
-      msgBtn.className = "btn btn-sm btn-outline-success";
-      msgBtn.innerHTML = '<i class="bi bi-chat-dots"></i>';
-      msgBtn.title = "Send Message";
-      msgBtn.onclick = () => {
-        document.getElementById("adminDriverId").value = bus.driverId;
-        document.getElementById("adminMsgInput").focus();
-      };
-
-      actions.appendChild(followBtn);
-      actions.appendChild(msgBtn);
-
-      item.appendChild(info);
-      item.appendChild(actions);
-      list.appendChild(item);
-    });
+    // Auto-follow if enabled
+    if (isFollowing && followedDriverId === bus.driverId) {
+      map.panTo([bus.latitude, bus.longitude], { animate: true, duration: 0.5 });
+    }
 
-    if (buses.length === 0) {
-      list.innerHTML = '<div class="text-center py-3 text-white-50">No active drivers</div>';
+    // Create list item
+    const item = document.createElement("div");
+    item.className = "p-2 border-bottom border-secondary d-flex justify-content-between align-items-center";
+    if (isFollowing && followedDriverId === bus.driverId) {
+      item.style.background = "rgba(59, 130, 246, 0.2)";
+      item.style.borderLeft = "4px solid #3b82f6";
     }
-  } catch (e) {
-    console.error("[OpenTrack] Error fetching fleet:", e);
+
+    const info = document.createElement("div");
+    info.innerHTML = `
+      <div><i class="bi bi-bus-front"></i> ${bus.fullName || "Driver #" + bus.driverId}</div>
+      <small class="text-white-50">${bus.plateNo || "No plate"}</small>
+    `;
+
+    const actions = document.createElement("div");
+    actions.className = "d-flex gap-1";
+
+    const followBtn = document.createElement("button");
+    followBtn.className =
+      "btn btn-sm " + (isFollowing && followedDriverId === bus.driverId ? "btn-warning" : "btn-outline-primary");
+    followBtn.innerHTML = '<i class="bi bi-crosshair"></i>';
+    followBtn.title = "Follow Driver";
+    followBtn.onclick = () => toggleFollowMode(bus.driverId, bus.latitude, bus.longitude);
+
+    const msgBtn = document.createElement("button");
+    msgBtn.className = "btn btn-sm btn-outline-success";
+    msgBtn.innerHTML = '<i class="bi bi-chat-dots"></i>';
+    msgBtn.title = "Send Message";
+    msgBtn.onclick = () => {
+      document.getElementById("adminDriverId").value = bus.driverId;
+      document.getElementById("adminMsgInput").focus();
+    };
+
+    actions.appendChild(followBtn);
+    actions.appendChild(msgBtn);
+
+    item.appendChild(info);
+    item.appendChild(actions);
+    list.appendChild(item);
+  });
+
+  if (buses.length === 0) {
+    list.innerHTML = '<div class="text-center py-3 text-white-50">No active drivers</div>';
   }
 }
 
@@ -282,23 +415,43 @@ function sendAdminMessage() {
 }
 
 // --- 5. LANDMARKS ---
+// Only landmarks inside the (padded) viewport are requested and kept on the map
+const landmarkMarkers = {};
+let landmarkReloadTimer = null;
+
 async function loadLandmarks() {
   try {
-    const res = await fetch("/api/landmarks");
+    const bbox = map.getBounds().pad(0.25).toBBoxString();
+    const res = await fetch("/api/landmarks?bbox=" + encodeURIComponent(bbox));
     const landmarks = await res.json();
+    const visible = new Set();
 
     landmarks.forEach((lm) => {
+      visible.add(String(lm.id));
+      if (landmarkMarkers[lm.id]) return;
       const icon = LANDMARK_ICONS[lm.type] || LANDMARK_ICONS.GAS;
-      L.marker([lm.latitude, lm.longitude], { icon })
+      landmarkMarkers[lm.id] = L.marker([lm.latitude, lm.longitude], { icon })
         .addTo(map)
         .bindPopup(`<strong>${lm.name}</strong><br/>${lm.type}`);
     });
+
+    Object.keys(landmarkMarkers).forEach((id) => {
+      if (!visible.has(id)) {
+        map.removeLayer(landmarkMarkers[id]);
+        delete landmarkMarkers[id];
+      }
+    });
     console.log("[OpenTrack] Loaded", landmarks.length, "landmarks");
   } catch (e) {
     console.error("[OpenTrack] Error loading landmarks:", e);
   }
 }
 
+map.on("moveend", () => {
+  clearTimeout(landmarkReloadTimer);
+  landmarkReloadTimer = setTimeout(loadLandmarks, 300);
+});
+
 // --- 6. ADMIN UI ---
 function openManageDriversModal() {
   loadDriversList();
@@ -306,19 +459,23 @@ function openManageDriversModal() {
   modal.show();
 }
 
-async function loadDriversList() {
+// Drivers are listed a page at a time; "Load more" continues after the last id shown
+let driversNextAfterId = null;
+
+async function loadDriversList(append = false) {
   try {
-    const res = await fetch("/api/admin/users");
-    const users = await res.json();
+    const params = new URLSearchParams({ role: "DRIVER", limit: 50 });
+    if (append && driversNextAfterId) params.set("after", driversNextAfterId);
+    const res = await fetch("/api/admin/users?" + params);
+    const page = await res.json();
     const list = document.getElementById("driversList");
-    list.innerHTML = "";
-
-    users
-      .filter((u) => u.role === "DRIVER")
-      .forEach((driver) => {
-        const item = document.createElement("div");
-        item.className = "list-group-item bg-dark text-white border-secondary mb-2";
-        item.innerHTML = `
+    if (!append) list.innerHTML = "";
+    document.getElementById("driversLoadMore")?.remove();
+
+    page.items.forEach((driver) => {
+      const item = document.createElement("div");
+      item.className = "list-group-item bg-dark text-white border-secondary mb-2";
+      item.innerHTML = `
           <div class="d-flex justify-content-between align-items-start">
             <div>
               <strong>${driver.fullName || driver.username}</strong>
@@ -330,8 +487,18 @@ async function loadDriversList() {
             <span class="badge ${driver.active ? "bg-success" : "bg-danger"}">${driver.active ? "Active" : "Inactive"}</span>
           </div>
         `;
-        list.appendChild(item);
-      });
+      list.appendChild(item);
+    });
+
+    driversNextAfterId = page.nextAfterId;
+    if (driversNextAfterId) {
+      const more = document.createElement("button");
+      more.id = "driversLoadMore";
+      more.className = "btn btn-outline-secondary w-100";
+      more.textContent = "Load more";
+      more.onclick = () => loadDriversList(true);
+      list.appendChild(more);
+    }
   } catch (e) {
     console.error("[OpenTrack] Error loading drivers:", e);
   }
@@ -376,18 +543,18 @@ document.getElementById("createDriverForm")?.addEventListener("submit", async (e
 async function findNearby(type) {
   if (!map.getCenter()) return;
   const { lat, lng } = map.getCenter();
-  const queryKey = type === "gas" ? '"amenity"="fuel"' : '"shop"="car_repair"';
-  const query = `[out:json][timeout:25];(node[${queryKey}](around:3000,${lat},${lng}););out;`;
+  const params = new URLSearchParams({ type, lat, lng, radius: 3000 });
 
   try {
-    const res = await fetch("https://overpass-api.de/api/interpreter?data=" + encodeURIComponent(query));
-    const data = await res.json();
-    data.elements.forEach((el) => {
-      L.marker([el.lat, el.lon])
+    const res = await fetch("/api/poi?" + params);
+    if (!res.ok) throw new Error("HTTP " + res.status);
+    const pois = await res.json();
+    pois.forEach((poi) => {
+      L.marker([poi.latitude, poi.longitude])
         .addTo(map)
-        .bindPopup(el.tags.name || "Service");
+        .bindPopup(poi.name || "Service");
     });
-    alert(`Found ${data.elements.length} nearby.`);
+    alert(`Found ${pois.length} nearby.`);
   } catch (e) {
     console.error("[OpenTrack] Error fetching services:", e);
     alert("Error fetching services");